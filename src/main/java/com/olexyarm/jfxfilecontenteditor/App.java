@@ -32,12 +32,11 @@ import javafx.stage.WindowEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javafx.animation.Timeline;
-
 public class App extends Application {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(App.class);
     private static Scene SCENE;
+    private static AutosaveScheduler autosaveScheduler;
 
     public static void main(String[] args) {
 
@@ -57,7 +56,7 @@ public class App extends Application {
         JfxFileContentEditorController controllerEditor = fxmlLoader.<JfxFileContentEditorController>getController();
 
         JfxFileContentEditorMenuController controllerMenu = controllerEditor.jfxEditorMenuController;
-        Timeline timeline = controllerMenu.getTimeline();
+        autosaveScheduler = controllerMenu.getAutosaveScheduler();
 
         SCENE = new Scene(root, Settings.INT_WINDOW_WIDTH, Settings.INT_WINDOW_HIGH);
 
@@ -125,10 +124,11 @@ public class App extends Application {
                                 "Click Yes to exit", "Yes", "No");
                         if (!booReturn) {
                             event.consume();
+                        } else {
+                            Utils.discardJournals(lstTabs);
                         }
                     }
                 }
-                timeline.stop();
             }
         });
 
@@ -146,4 +146,18 @@ public class App extends Application {
         stage.show();
         LOGGER.debug("### Started APP.");
     }
+
+    @Override
+    public void stop() {
+
+        LOGGER.debug("### Stopping APP.");
+        if (autosaveScheduler != null) {
+            autosaveScheduler.stop();
+        }
+        LoadExecutor.shutdown();
+        FileWatcher.shutdown();
+        MemoryMonitor.stop();
+        EditJournal.shutdown();
+        FileBackup.shutdown();
+    }
 }
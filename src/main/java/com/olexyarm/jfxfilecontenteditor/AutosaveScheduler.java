@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javafx.application.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class AutosaveScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AutosaveScheduler.class);
+
+    // Autosave runs on own thread, only start of save is done on FX thread.
+    // File is saved when it was not edited for idle time, but not later than max latency after the first not saved edit,
+    // even if editing continues. Saves are started one by one with delay, so many modified files are not written at once.
+    private static final long LNG_SAVE_STAGGER_MS = 500;
+
+    private static class EditorState {
+
+        private long lngEditFirstNs;
+        private long lngEditLastNs;
+        private ScheduledFuture<?> futureCheck;
+    }
+
+    private final long lngIdleNs;
+    private final long lngLatencyMaxNs;
+    private final ScheduledExecutorService executor;
+    private final Map<FileContentEditor, EditorState> mapStates = new ConcurrentHashMap<>();
+    // Used on autosave thread and FX thread.
+    private volatile long lngSaveNextNs;
+    private final AtomicLong lngAutoSaveCount = new AtomicLong();
+    private final AtomicLong lngAutoSaveSkippedCount = new AtomicLong();
+
+    // -------------------------------------------------------------------------------------
+    // Construstors
+    // -------------------------------------------------------------------------------------
+    AutosaveScheduler(int intIdleSec, int intLatencyMaxMinutes) {
+
+        this.lngIdleNs = TimeUnit.SECONDS.toNanos(Math.max(1, intIdleSec));
+        this.lngLatencyMaxNs = Math.max(this.lngIdleNs, TimeUnit.MINUTES.toNanos(intLatencyMaxMinutes));
+        ScheduledThreadPoolExecutor stpe = new ScheduledThreadPoolExecutor(1, (Runnable r) -> {
+            Thread thread = new Thread(r, "Autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        stpe.setRemoveOnCancelPolicy(true);
+        this.executor = stpe;
+        LOGGER.info("Created Autosave."
+                + " IdleSec=" + intIdleSec
+                + " LatencyMaxMinutes=" + intLatencyMaxMinutes);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    // Called on FX thread for every edit, it's cheap: check is scheduled only when there is no one.
+    void edited(FileContentEditor fileEditor) {
+
+        long lngNowNs = System.nanoTime();
+        EditorState editorState = this.mapStates.computeIfAbsent(fileEditor, k -> new EditorState());
+        synchronized (editorState) {
+            if (editorState.lngEditFirstNs == 0) {
+                editorState.lngEditFirstNs = lngNowNs;
+            }
+            editorState.lngEditLastNs = lngNowNs;
+            if (editorState.futureCheck == null && !this.executor.isShutdown()) {
+                editorState.futureCheck = this.executor.schedule(() -> {
+                    this.check(fileEditor, editorState);
+                }, this.lngIdleNs, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Tab was closed.
+    void remove(FileContentEditor fileEditor) {
+
+        EditorState editorState = this.mapStates.remove(fileEditor);
+        if (editorState == null) {
+            return;
+        }
+        synchronized (editorState) {
+            if (editorState.futureCheck != null) {
+                editorState.futureCheck.cancel(false);
+                editorState.futureCheck = null;
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    void stop() {
+
+        this.executor.shutdownNow();
+        LOGGER.info("Stopped Autosave."
+                + " AutoSaveCount=" + this.lngAutoSaveCount.get()
+                + " AutoSaveSkippedCount=" + this.lngAutoSaveSkippedCount.get());
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    // Runs on autosave thread.
+    private void check(FileContentEditor fileEditor, EditorState editorState) {
+
+        long lngNowNs = System.nanoTime();
+        long lngEditFirstNs;
+        synchronized (editorState) {
+            long lngDueNs = Math.min(editorState.lngEditLastNs + this.lngIdleNs, editorState.lngEditFirstNs + this.lngLatencyMaxNs);
+            lngDueNs = Math.max(lngDueNs, this.lngSaveNextNs);
+            if (lngNowNs < lngDueNs) {
+                editorState.futureCheck = this.executor.schedule(() -> {
+                    this.check(fileEditor, editorState);
+                }, lngDueNs - lngNowNs, TimeUnit.NANOSECONDS);
+                return;
+            }
+            editorState.futureCheck = null;
+            lngEditFirstNs = editorState.lngEditFirstNs;
+            editorState.lngEditFirstNs = 0;
+        }
+        this.lngSaveNextNs = lngNowNs + TimeUnit.MILLISECONDS.toNanos(LNG_SAVE_STAGGER_MS);
+        this.save(fileEditor, editorState, lngEditFirstNs);
+    }
+
+    // -------------------------------------------------------------------------------------
+    private void save(FileContentEditor fileEditor, EditorState editorState, long lngEditFirstNs) {
+
+        String strTabId = fileEditor.getTabId();
+        long lngEditLastNs;
+        synchronized (editorState) {
+            lngEditLastNs = editorState.lngEditLastNs;
+        }
+        // Content is the same as saved, edits were undone.
+        if (fileEditor.isContentSaved()) {
+            this.lngAutoSaveSkippedCount.incrementAndGet();
+            LOGGER.debug("Autosave skipped File, content was not changed."
+                    + " TabId=\"" + strTabId + "\""
+                    + " FilePath=\"" + fileEditor.getFilePath() + "\"");
+            Platform.runLater(() -> {
+                // Not modified only when there was no edit after the hash.
+                synchronized (editorState) {
+                    if (this.mapStates.containsKey(fileEditor) && editorState.lngEditLastNs == lngEditLastNs) {
+                        fileEditor.setFileModified(false);
+                    }
+                }
+            });
+            return;
+        }
+        // File checks are done here, not on FX thread.
+        String strReason = FileContentEditor.canSaveFile(strTabId, fileEditor.getPathFile());
+        if (strReason != null) {
+            LOGGER.error("Autosave skipped File."
+                    + " TabId=\"" + strTabId + "\""
+                    + " FilePath=\"" + fileEditor.getFilePath() + "\""
+                    + " Reason=\"" + strReason + "\"");
+            return;
+        }
+        long lngAutoSaveCountNow = this.lngAutoSaveCount.incrementAndGet();
+        Platform.runLater(() -> {
+            // File could be saved or closed meanwhile.
+            if (this.mapStates.containsKey(fileEditor) && fileEditor.isFileModified()) {
+                boolean booStarted = fileEditor.saveFileChecked();
+                LOGGER.debug("Autosave file."
+                        + " AutoSaveCount=" + lngAutoSaveCountNow
+                        + " Started=" + booStarted
+                        + " TabId=\"" + strTabId + "\""
+                        + " FilePath=\"" + fileEditor.getFilePath() + "\"");
+                if (!booStarted && fileEditor.isFileChangedExternally()) {
+                    // Not retried until File is saved by user or loaded again, next edit after that schedules autosave.
+                    LOGGER.info("Autosave stopped for File changed by other program."
+                            + " TabId=\"" + strTabId + "\""
+                            + " FilePath=\"" + fileEditor.getFilePath() + "\"");
+                } else if (!booStarted) {
+                    // File is being saved already, edits are saved later.
+                    this.retry(fileEditor, editorState, lngEditFirstNs);
+                }
+            }
+        });
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Called on FX thread, check is scheduled again with the first edit kept, so max latency is still counted from it.
+    private void retry(FileContentEditor fileEditor, EditorState editorState, long lngEditFirstNs) {
+
+        synchronized (editorState) {
+            if (!this.mapStates.containsKey(fileEditor) || this.executor.isShutdown()) {
+                return;
+            }
+            if (editorState.lngEditFirstNs == 0 || lngEditFirstNs - editorState.lngEditFirstNs < 0) {
+                editorState.lngEditFirstNs = lngEditFirstNs;
+            }
+            if (editorState.futureCheck == null) {
+                editorState.futureCheck = this.executor.schedule(() -> {
+                    this.check(fileEditor, editorState);
+                }, this.lngIdleNs, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+class BackupDelta {
+
+    // Binary delta of target file against base file, rsync like:
+    // base is split into blocks, target is scanned with rolling hash of block size,
+    // matching ranges are written as Copy from base, the rest is written as Insert.
+    // Format (gzip compressed): magic, base hash, target size, ops, End.
+    private static final int INT_MAGIC = 0x4A464444;
+    private static final byte BYT_OP_END = 0;
+    private static final byte BYT_OP_COPY = 1;
+    private static final byte BYT_OP_INSERT = 2;
+    private static final int INT_BLOCK_SIZE = 4 * 1024;
+    private static final long LNG_HASH_MULTIPLIER = 0x100000001B3L;
+    private static final int INT_BUFFER_SIZE = 64 * 1024;
+
+    private final DataOutputStream dos;
+    private final MappedByteBuffer mbbTarget;
+    private final byte[] abytBuffer = new byte[INT_BUFFER_SIZE];
+    private final long lngInsertMax;
+
+    private long lngInserted;
+    private int intCopyOffset = -1;
+    private int intCopyLen;
+
+    // -------------------------------------------------------------------------------------
+    // Construstors
+    // -------------------------------------------------------------------------------------
+    private BackupDelta(DataOutputStream dos, MappedByteBuffer mbbTarget, long lngInsertMax) {
+
+        this.dos = dos;
+        this.mbbTarget = mbbTarget;
+        this.lngInsertMax = lngInsertMax;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    // Writes delta to pathDelta, returns false when delta would have more than lngInsertMax inserted bytes,
+    // full copy is better then.
+    static boolean encode(Path pathBase, String strBaseHash, Path pathTarget, Path pathDelta, long lngInsertMax) throws IOException {
+
+        long lngBaseSize = Files.size(pathBase);
+        long lngTargetSize = Files.size(pathTarget);
+        if (lngBaseSize > Integer.MAX_VALUE || lngTargetSize > Integer.MAX_VALUE) {
+            return false;
+        }
+        try (FileChannel fcBase = FileChannel.open(pathBase, StandardOpenOption.READ);
+                FileChannel fcTarget = FileChannel.open(pathTarget, StandardOpenOption.READ);
+                DataOutputStream dos = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(pathDelta), INT_BUFFER_SIZE))) {
+            MappedByteBuffer mbbBase = fcBase.map(FileChannel.MapMode.READ_ONLY, 0, lngBaseSize);
+            MappedByteBuffer mbbTarget = fcTarget.map(FileChannel.MapMode.READ_ONLY, 0, lngTargetSize);
+            dos.writeInt(INT_MAGIC);
+            dos.writeUTF(strBaseHash);
+            dos.writeLong(lngTargetSize);
+            BackupDelta backupDelta = new BackupDelta(dos, mbbTarget, lngInsertMax);
+            if (!backupDelta.encode(mbbBase, (int) lngBaseSize, (int) lngTargetSize)) {
+                return false;
+            }
+            dos.writeByte(BYT_OP_END);
+        }
+        return true;
+    }
+
+    // -------------------------------------------------------------------------------------
+    static String readBaseHash(Path pathDelta) throws IOException {
+
+        try (DataInputStream dis = new DataInputStream(new GZIPInputStream(Files.newInputStream(pathDelta)))) {
+            if (dis.readInt() != INT_MAGIC) {
+                throw new IOException("Not a delta File: " + pathDelta);
+            }
+            return dis.readUTF();
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    static void apply(Path pathDelta, Path pathBase, Path pathTarget) throws IOException {
+
+        try (DataInputStream dis = new DataInputStream(new GZIPInputStream(Files.newInputStream(pathDelta), INT_BUFFER_SIZE));
+                FileChannel fcBase = FileChannel.open(pathBase, StandardOpenOption.READ);
+                FileChannel fcTarget = FileChannel.open(pathTarget, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (dis.readInt() != INT_MAGIC) {
+                throw new IOException("Not a delta File: " + pathDelta);
+            }
+            dis.readUTF();
+            long lngTargetSize = dis.readLong();
+            byte[] abytBuffer = new byte[INT_BUFFER_SIZE];
+            while (true) {
+                byte bytOp = dis.readByte();
+                if (bytOp == BYT_OP_END) {
+                    break;
+                }
+                if (bytOp == BYT_OP_COPY) {
+                    long lngOffset = dis.readInt();
+                    long lngLen = dis.readInt();
+                    while (lngLen > 0) {
+                        long lngTransferred = fcBase.transferTo(lngOffset, lngLen, fcTarget);
+                        if (lngTransferred <= 0) {
+                            throw new IOException("Delta Copy is out of base File: " + pathDelta);
+                        }
+                        lngOffset += lngTransferred;
+                        lngLen -= lngTransferred;
+                    }
+                } else if (bytOp == BYT_OP_INSERT) {
+                    int intLen = dis.readInt();
+                    while (intLen > 0) {
+                        int intChunk = Math.min(intLen, abytBuffer.length);
+                        dis.readFully(abytBuffer, 0, intChunk);
+                        ByteBuffer bb = ByteBuffer.wrap(abytBuffer, 0, intChunk);
+                        while (bb.hasRemaining()) {
+                            fcTarget.write(bb);
+                        }
+                        intLen -= intChunk;
+                    }
+                } else {
+                    throw new IOException("Unknown delta operation " + bytOp + ": " + pathDelta);
+                }
+            }
+            if (fcTarget.size() != lngTargetSize) {
+                throw new IOException("Restored File size " + fcTarget.size() + " is not " + lngTargetSize + ": " + pathDelta);
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private boolean encode(MappedByteBuffer mbbBase, int intBaseSize, int intTargetSize) throws IOException {
+
+        // Offsets of base blocks by hash, the first block wins.
+        Map<Long, Integer> mapBlocks = new HashMap<>();
+        for (int intOffset = 0; intOffset + INT_BLOCK_SIZE <= intBaseSize; intOffset += INT_BLOCK_SIZE) {
+            mapBlocks.putIfAbsent(hashBlock(mbbBase, intOffset), intOffset);
+        }
+
+        long lngMultiplierOut = 1;
+        for (int i = 1; i < INT_BLOCK_SIZE; i++) {
+            lngMultiplierOut *= LNG_HASH_MULTIPLIER;
+        }
+
+        int intInsertStart = 0;
+        int intPos = 0;
+        long lngHash = intTargetSize >= INT_BLOCK_SIZE ? hashBlock(this.mbbTarget, 0) : 0;
+        while (intPos + INT_BLOCK_SIZE <= intTargetSize) {
+            Integer intBaseOffsetFound = mapBlocks.get(lngHash);
+            if (intBaseOffsetFound != null && isSame(mbbBase, intBaseOffsetFound, intPos, INT_BLOCK_SIZE)) {
+                int intBaseOffset = intBaseOffsetFound;
+                int intMatchStart = intPos;
+                // Extend match backward into not written insert and forward past the block.
+                while (intMatchStart > intInsertStart && intBaseOffset > 0
+                        && mbbBase.get(intBaseOffset - 1) == this.mbbTarget.get(intMatchStart - 1)) {
+                    intMatchStart--;
+                    intBaseOffset--;
+                }
+                int intMatchEnd = intPos + INT_BLOCK_SIZE;
+                int intBaseEnd = intBaseOffsetFound + INT_BLOCK_SIZE;
+                while (intMatchEnd < intTargetSize && intBaseEnd < intBaseSize
+                        && mbbBase.get(intBaseEnd) == this.mbbTarget.get(intMatchEnd)) {
+                    intMatchEnd++;
+                    intBaseEnd++;
+                }
+                if (!this.writeInsert(intInsertStart, intMatchStart - intInsertStart)) {
+                    return false;
+                }
+                this.writeCopy(intBaseOffset, intMatchEnd - intMatchStart);
+                intPos = intMatchEnd;
+                intInsertStart = intPos;
+                if (intPos + INT_BLOCK_SIZE <= intTargetSize) {
+                    lngHash = hashBlock(this.mbbTarget, intPos);
+                }
+                continue;
+            }
+            if (intPos + INT_BLOCK_SIZE < intTargetSize) {
+                lngHash = (lngHash - (this.mbbTarget.get(intPos) & 0xFF) * lngMultiplierOut) * LNG_HASH_MULTIPLIER
+                        + (this.mbbTarget.get(intPos + INT_BLOCK_SIZE) & 0xFF);
+            }
+            intPos++;
+        }
+        if (!this.writeInsert(intInsertStart, intTargetSize - intInsertStart)) {
+            return false;
+        }
+        this.flushCopy();
+        return true;
+    }
+
+    // -------------------------------------------------------------------------------------
+    private void writeCopy(int intOffset, int intLen) throws IOException {
+
+        // Adjacent copies are merged in one.
+        if (this.intCopyOffset >= 0 && this.intCopyOffset + this.intCopyLen == intOffset) {
+            this.intCopyLen += intLen;
+            return;
+        }
+        this.flushCopy();
+        this.intCopyOffset = intOffset;
+        this.intCopyLen = intLen;
+    }
+
+    // -------------------------------------------------------------------------------------
+    private void flushCopy() throws IOException {
+
+        if (this.intCopyOffset < 0) {
+            return;
+        }
+        this.dos.writeByte(BYT_OP_COPY);
+        this.dos.writeInt(this.intCopyOffset);
+        this.dos.writeInt(this.intCopyLen);
+        this.intCopyOffset = -1;
+        this.intCopyLen = 0;
+    }
+
+    // -------------------------------------------------------------------------------------
+    private boolean writeInsert(int intFrom, int intLen) throws IOException {
+
+        if (intLen <= 0) {
+            return true;
+        }
+        this.lngInserted += intLen;
+        if (this.lngInserted > this.lngInsertMax) {
+            return false;
+        }
+        this.flushCopy();
+        this.dos.writeByte(BYT_OP_INSERT);
+        this.dos.writeInt(intLen);
+        while (intLen > 0) {
+            int intChunk = Math.min(intLen, this.abytBuffer.length);
+            this.mbbTarget.get(intFrom, this.abytBuffer, 0, intChunk);
+            this.dos.write(this.abytBuffer, 0, intChunk);
+            intFrom += intChunk;
+            intLen -= intChunk;
+        }
+        return true;
+    }
+
+    // -------------------------------------------------------------------------------------
+    private boolean isSame(MappedByteBuffer mbbBase, int intBaseOffset, int intTargetOffset, int intLen) {
+
+        return mbbBase.slice(intBaseOffset, intLen).mismatch(this.mbbTarget.slice(intTargetOffset, intLen)) < 0;
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static long hashBlock(MappedByteBuffer mbb, int intOffset) {
+
+        long lngHash = 0;
+        for (int i = intOffset; i < intOffset + INT_BLOCK_SIZE; i++) {
+            lngHash = lngHash * LNG_HASH_MULTIPLIER + (mbb.get(i) & 0xFF);
+        }
+        return lngHash;
+    }
+}
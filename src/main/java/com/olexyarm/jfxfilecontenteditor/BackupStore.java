@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class BackupStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackupStore.class);
+
+    // Backups of every file are kept in own directory "Backups/<hash of file path>",
+    // content is gzip compressed and stored in "<hash of content>.gz", so identical versions are stored once.
+    // File "index.txt" has file path in first line and one line per backup "time size hash", newest last.
+    // With delta backups the newest backup is always full copy, previous one is replaced by delta against it
+    // in "<hash of content>.delta.gz" (reverse delta), every INT_DELTA_CHAIN_MAX backup is kept full.
+    static final Path PATH_BACKUP_STORE_DIR = Path.of(Settings.STR_DIRECTORY_USER_HOME_PATH,
+            Settings.STR_JFX_EDITOR_SETTINGS_DIRECTORY, "Backups");
+    private static final String STR_INDEX_FILE_NAME = "index.txt";
+    private static final String STR_BLOB_EXT = ".gz";
+    private static final String STR_DELTA_EXT = ".delta.gz";
+    private static final int INT_DELTA_CHAIN_MAX = 10;
+    private static final int INT_DELTA_DEPTH_MAX = 1000;
+    private static final String STR_TEMP_EXT = ".tmp";
+    private static final String STR_HASH_ALGORITHM = "SHA-256";
+    private static final int INT_BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter DTF_ENTRY = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    record Entry(long lngTime, long lngSize, String strHash) {
+
+        @Override
+        public String toString() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(this.lngTime), ZoneId.systemDefault()).format(DTF_ENTRY)
+                    + "  " + ProgressReporter.formatSize(this.lngSize);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    // Store content of pathFileContent as backup of pathFile, it's called on backup thread.
+    static boolean store(String strTabId, Path pathFile, Path pathFileContent) {
+
+        Path pathDir = getPathDir(pathFile);
+        Path pathFileTemp = pathDir.resolve(System.nanoTime() + STR_TEMP_EXT);
+        String strHash;
+        long lngSize = 0;
+        try {
+            Files.createDirectories(pathDir);
+            MessageDigest md = MessageDigest.getInstance(STR_HASH_ALGORITHM);
+            byte[] abytBuffer = new byte[INT_BUFFER_SIZE];
+            try (InputStream is = Files.newInputStream(pathFileContent);
+                    OutputStream os = new GZIPOutputStream(Files.newOutputStream(pathFileTemp), INT_BUFFER_SIZE)) {
+                int intRead;
+                while ((intRead = is.read(abytBuffer)) > 0) {
+                    md.update(abytBuffer, 0, intRead);
+                    os.write(abytBuffer, 0, intRead);
+                    lngSize += intRead;
+                }
+            }
+            strHash = HexFormat.of().formatHex(md.digest());
+            Path pathBlob = pathDir.resolve(strHash + STR_BLOB_EXT);
+            if (Files.exists(pathBlob)) {
+                Files.delete(pathFileTemp);
+            } else {
+                Files.move(pathFileTemp, pathBlob, StandardCopyOption.REPLACE_EXISTING);
+                // Newest backup is full copy, older delta of the same content is not needed.
+                deleteQuietly(pathDir.resolve(strHash + STR_DELTA_EXT));
+            }
+        } catch (Throwable t) {
+            LOGGER.error("Could not store backup."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\""
+                    + " pathFileContent=\"" + pathFileContent + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+            deleteQuietly(pathFileTemp);
+            return false;
+        }
+
+        List<Entry> lstEntries = list(pathFile);
+        if (!lstEntries.isEmpty() && lstEntries.get(lstEntries.size() - 1).strHash().equals(strHash)) {
+            LOGGER.debug("Backup is the same as latest one."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\""
+                    + " Hash=\"" + strHash + "\"");
+            return true;
+        }
+        lstEntries.add(new Entry(System.currentTimeMillis(), lngSize, strHash));
+        List<Entry> lstEntriesRemoved = new ArrayList<>();
+        while (lstEntries.size() > Math.max(1, Settings.INT_BACKUP_FILES_MAX)) {
+            lstEntriesRemoved.add(lstEntries.remove(0));
+        }
+        if (!writeIndex(strTabId, pathFile, pathDir, lstEntries)) {
+            return false;
+        }
+        deleteUnreferenced(pathDir, lstEntries, lstEntriesRemoved);
+        if (Settings.BOO_BACKUP_STORE_DELTA && lstEntries.size() > 1) {
+            storeDelta(strTabId, pathFile, pathDir, lstEntries, pathFileContent);
+        }
+        LOGGER.debug("Stored backup."
+                + " TabId=\"" + strTabId + "\""
+                + " pathFile=\"" + pathFile + "\""
+                + " Size=" + lngSize
+                + " Hash=\"" + strHash + "\""
+                + " Entries=" + lstEntries.size()
+                + " EntriesRemoved=" + lstEntriesRemoved.size());
+        return true;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Returns backups of file, the oldest first.
+    static List<Entry> list(Path pathFile) {
+
+        List<Entry> lstEntries = new ArrayList<>();
+        Path pathIndex = getPathDir(pathFile).resolve(STR_INDEX_FILE_NAME);
+        if (!Files.exists(pathIndex)) {
+            return lstEntries;
+        }
+        try (BufferedReader br = Files.newBufferedReader(pathIndex, StandardCharsets.UTF_8)) {
+            // First line is File path.
+            String strLine = br.readLine();
+            while ((strLine = br.readLine()) != null) {
+                String[] arrFields = strLine.split(" ");
+                if (arrFields.length < 3) {
+                    continue;
+                }
+                lstEntries.add(new Entry(Long.parseLong(arrFields[0]), Long.parseLong(arrFields[1]), arrFields[2]));
+            }
+        } catch (Throwable t) {
+            LOGGER.error("Could not read backup index."
+                    + " pathFile=\"" + pathFile + "\""
+                    + " pathIndex=\"" + pathIndex + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+        }
+        return lstEntries;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Decompress backup to pathFileTarget, returns error message or null.
+    static String restore(String strTabId, Path pathFile, Entry entry, Path pathFileTarget) {
+
+        try {
+            restoreBlob(getPathDir(pathFile), entry.strHash(), pathFileTarget, 0);
+        } catch (Throwable t) {
+            String strMsg = "Could not restore backup."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\""
+                    + " Backup=\"" + entry + "\""
+                    + " Throwable=\"" + t.toString() + "\"";
+            LOGGER.error(strMsg);
+            return strMsg;
+        }
+        LOGGER.debug("Restored backup."
+                + " TabId=\"" + strTabId + "\""
+                + " pathFile=\"" + pathFile + "\""
+                + " Backup=\"" + entry + "\""
+                + " pathFileTarget=\"" + pathFileTarget + "\"");
+        return null;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private static Path getPathDir(Path pathFile) {
+
+        String strFilePath = pathFile.toAbsolutePath().toString();
+        String strDirName;
+        try {
+            MessageDigest md = MessageDigest.getInstance(STR_HASH_ALGORITHM);
+            strDirName = HexFormat.of().formatHex(md.digest(strFilePath.getBytes(StandardCharsets.UTF_8)), 0, 16);
+        } catch (Throwable t) {
+            strDirName = Integer.toHexString(strFilePath.hashCode());
+        }
+        return PATH_BACKUP_STORE_DIR.resolve(strDirName);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Replace full copy of previous backup with delta against the newest one.
+    private static void storeDelta(String strTabId, Path pathFile, Path pathDir, List<Entry> lstEntries, Path pathFileContent) {
+
+        int intPrev = lstEntries.size() - 2;
+        Entry entryNew = lstEntries.get(intPrev + 1);
+        Entry entryPrev = lstEntries.get(intPrev);
+        Path pathBlobPrev = pathDir.resolve(entryPrev.strHash() + STR_BLOB_EXT);
+        if (!Files.exists(pathBlobPrev) || entryPrev.strHash().equals(entryNew.strHash())) {
+            return;
+        }
+        // Deltas older than previous backup will be restored through it, keep full copy when chain is long.
+        int intChain = 1;
+        for (int i = intPrev - 1; i >= 0 && !Files.exists(pathDir.resolve(lstEntries.get(i).strHash() + STR_BLOB_EXT)); i--) {
+            intChain++;
+        }
+        if (intChain >= INT_DELTA_CHAIN_MAX) {
+            LOGGER.debug("Kept full backup."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\""
+                    + " Backup=\"" + entryPrev + "\""
+                    + " Chain=" + intChain);
+            return;
+        }
+
+        Path pathFilePrev = pathDir.resolve(System.nanoTime() + STR_TEMP_EXT);
+        Path pathDeltaTemp = pathDir.resolve(System.nanoTime() + STR_DELTA_EXT + STR_TEMP_EXT);
+        try {
+            try (InputStream is = new GZIPInputStream(Files.newInputStream(pathBlobPrev), INT_BUFFER_SIZE)) {
+                Files.copy(is, pathFilePrev, StandardCopyOption.REPLACE_EXISTING);
+            }
+            // Delta is used only when it's less than half of the File.
+            boolean booDelta = BackupDelta.encode(pathFileContent, entryNew.strHash(), pathFilePrev, pathDeltaTemp,
+                    entryPrev.lngSize() / 2);
+            if (!booDelta) {
+                LOGGER.debug("Delta backup is too big, kept full backup."
+                        + " TabId=\"" + strTabId + "\""
+                        + " pathFile=\"" + pathFile + "\""
+                        + " Backup=\"" + entryPrev + "\"");
+                return;
+            }
+            Files.move(pathDeltaTemp, pathDir.resolve(entryPrev.strHash() + STR_DELTA_EXT), StandardCopyOption.REPLACE_EXISTING);
+            Files.delete(pathBlobPrev);
+            LOGGER.debug("Replaced full backup with delta."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\""
+                    + " Backup=\"" + entryPrev + "\""
+                    + " Chain=" + intChain);
+        } catch (Throwable t) {
+            LOGGER.error("Could not store delta backup."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\""
+                    + " Backup=\"" + entryPrev + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+        } finally {
+            deleteQuietly(pathFilePrev);
+            deleteQuietly(pathDeltaTemp);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Restore full copy, or restore base of delta first and apply delta to it.
+    private static void restoreBlob(Path pathDir, String strHash, Path pathFileTarget, int intDepth) throws IOException {
+
+        Path pathBlob = pathDir.resolve(strHash + STR_BLOB_EXT);
+        if (Files.exists(pathBlob)) {
+            try (InputStream is = new GZIPInputStream(Files.newInputStream(pathBlob), INT_BUFFER_SIZE)) {
+                Files.copy(is, pathFileTarget, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return;
+        }
+        if (intDepth > INT_DELTA_DEPTH_MAX) {
+            throw new IOException("Delta backup chain is broken: " + strHash);
+        }
+        Path pathDelta = pathDir.resolve(strHash + STR_DELTA_EXT);
+        Path pathFileBase = pathDir.resolve(System.nanoTime() + STR_TEMP_EXT);
+        try {
+            restoreBlob(pathDir, BackupDelta.readBaseHash(pathDelta), pathFileBase, intDepth + 1);
+            BackupDelta.apply(pathDelta, pathFileBase, pathFileTarget);
+        } finally {
+            deleteQuietly(pathFileBase);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static boolean writeIndex(String strTabId, Path pathFile, Path pathDir, List<Entry> lstEntries) {
+
+        Path pathIndex = pathDir.resolve(STR_INDEX_FILE_NAME);
+        Path pathIndexTemp = pathDir.resolve(STR_INDEX_FILE_NAME + STR_TEMP_EXT);
+        try {
+            try (BufferedWriter bw = Files.newBufferedWriter(pathIndexTemp, StandardCharsets.UTF_8)) {
+                bw.write(pathFile.toAbsolutePath().toString());
+                bw.newLine();
+                for (Entry entry : lstEntries) {
+                    bw.write(entry.lngTime() + " " + entry.lngSize() + " " + entry.strHash());
+                    bw.newLine();
+                }
+            }
+            Files.move(pathIndexTemp, pathIndex, StandardCopyOption.REPLACE_EXISTING);
+        } catch (Throwable t) {
+            LOGGER.error("Could not write backup index."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\""
+                    + " pathIndex=\"" + pathIndex + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+            deleteQuietly(pathIndexTemp);
+            return false;
+        }
+        return true;
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static void deleteUnreferenced(Path pathDir, List<Entry> lstEntries, List<Entry> lstEntriesRemoved) {
+
+        Set<String> setHashes = new HashSet<>();
+        for (Entry entry : lstEntries) {
+            setHashes.add(entry.strHash());
+        }
+        // Bases of remaining deltas are newer backups, but keep them anyway in case of the same content.
+        for (Entry entry : lstEntries) {
+            Path pathDelta = pathDir.resolve(entry.strHash() + STR_DELTA_EXT);
+            if (Files.exists(pathDelta)) {
+                try {
+                    setHashes.add(BackupDelta.readBaseHash(pathDelta));
+                } catch (Throwable t) {
+                    LOGGER.error("Could not read delta backup."
+                            + " pathDelta=\"" + pathDelta + "\""
+                            + " Throwable=\"" + t.toString() + "\"");
+                }
+            }
+        }
+        for (Entry entry : lstEntriesRemoved) {
+            if (!setHashes.contains(entry.strHash())) {
+                deleteQuietly(pathDir.resolve(entry.strHash() + STR_BLOB_EXT));
+                deleteQuietly(pathDir.resolve(entry.strHash() + STR_DELTA_EXT));
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static void deleteQuietly(Path path) {
+
+        try {
+            Files.deleteIfExists(path);
+        } catch (Throwable t) {
+            LOGGER.error("Could not delete File."
+                    + " path=\"" + path + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class CharsetDetector {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CharsetDetector.class);
+
+    // Charset is guessed from the beginning and the end of File (up to 64KB each):
+    // BOM, zero bytes of UTF-16, valid UTF-8 sequences, and for other files share of bytes above 0x7F.
+    // When the sample is ASCII only, charset selected by user is kept.
+    private static final int INT_SAMPLE_SIZE = 64 * 1024;
+    private static final long LNG_ASCII_MASK = 0x8080808080808080L;
+    // UTF-16 has zero byte in most of ASCII characters.
+    private static final double DBL_UTF16_ZEROS_MIN = 0.3;
+    private static final double DBL_UTF16_ZEROS_OTHER_MAX = 0.05;
+    // Cyrillic text in single byte charset has most of letters above 0x7F.
+    private static final double DBL_CYRILLIC_HIGH_MIN = 0.3;
+    // Binary File has zero bytes, or many control characters other than used in text (TAB, LF, FF, CR, ESC).
+    private static final int INT_BINARY_SAMPLE_SIZE = 8 * 1024;
+    private static final double DBL_BINARY_CONTROLS_MAX = 0.1;
+    private static final String STR_CHARSET_CYRILLIC = "windows-1251";
+    private static final String STR_CHARSET_LATIN = "windows-1252";
+    private static final byte[] ARR_CR_LF = {0x0D, 0x0A};
+    private static final VarHandle VH_LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    static Charset detect(String strTabId, Path pathFile, long lngFileSize, Charset charsetDefault) {
+
+        if (lngFileSize == 0) {
+            return charsetDefault;
+        }
+        Charset charset;
+        try (FileChannel fileChannel = FileChannel.open(pathFile, StandardOpenOption.READ)) {
+            int intHeadSize = (int) Math.min(lngFileSize, INT_SAMPLE_SIZE);
+            MappedByteBuffer mbbHead = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, intHeadSize);
+            charset = detectBom(mbbHead, intHeadSize);
+            if (charset == null) {
+                charset = detectUtf16(mbbHead, intHeadSize);
+            }
+            if (charset == null) {
+                int intUtf8 = checkUtf8(mbbHead, 0, intHeadSize);
+                if (intUtf8 >= 0 && lngFileSize > intHeadSize) {
+                    long lngTailStart = Math.max(intHeadSize, lngFileSize - INT_SAMPLE_SIZE);
+                    int intTailSize = (int) (lngFileSize - lngTailStart);
+                    MappedByteBuffer mbbTail = fileChannel.map(FileChannel.MapMode.READ_ONLY, lngTailStart, intTailSize);
+                    // Tail could start in the middle of UTF-8 sequence.
+                    int intSkip = 0;
+                    while (intSkip < Math.min(3, intTailSize) && (mbbTail.get(intSkip) & 0xC0) == 0x80) {
+                        intSkip++;
+                    }
+                    int intUtf8Tail = checkUtf8(mbbTail, intSkip, intTailSize);
+                    intUtf8 = intUtf8Tail < 0 ? intUtf8Tail : intUtf8 + intUtf8Tail;
+                }
+                if (intUtf8 > 0) {
+                    charset = StandardCharsets.UTF_8;
+                } else if (intUtf8 == 0) {
+                    // ASCII only.
+                    charset = isAsciiCompatible(charsetDefault) ? charsetDefault : StandardCharsets.UTF_8;
+                } else {
+                    charset = detectSingleByte(mbbHead, intHeadSize, charsetDefault);
+                }
+            }
+        } catch (Throwable t) {
+            LOGGER.error("Could not detect charset."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+            return charsetDefault;
+        }
+        LOGGER.debug("Detected charset."
+                + " TabId=\"" + strTabId + "\""
+                + " pathFile=\"" + pathFile + "\""
+                + " CharsetDefault=\"" + charsetDefault + "\""
+                + " Charset=\"" + charset + "\"");
+        return charset;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Only the beginning of File is read, it's called before loading to not decode binary File as text.
+    static boolean isBinary(String strTabId, Path pathFile, long lngFileSize) {
+
+        if (lngFileSize == 0) {
+            return false;
+        }
+        ByteBuffer bb = ByteBuffer.allocate((int) Math.min(lngFileSize, INT_BINARY_SAMPLE_SIZE));
+        try (FileChannel fileChannel = FileChannel.open(pathFile, StandardOpenOption.READ)) {
+            while (bb.hasRemaining() && fileChannel.read(bb) > 0) {
+            }
+        } catch (Throwable t) {
+            LOGGER.error("Could not check if File is binary."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+            return false;
+        }
+        int intSize = bb.position();
+        // UTF-16 and UTF-32 text has zero bytes.
+        if (intSize == 0 || detectBom(bb, intSize) != null || detectUtf16(bb, intSize) != null) {
+            return false;
+        }
+        int intControls = 0;
+        for (int i = 0; i < intSize; i++) {
+            int b = bb.get(i) & 0xFF;
+            if (b == 0) {
+                intControls = intSize;
+                break;
+            }
+            if ((b < 0x20 && b != '\t' && b != '\n' && b != '\f' && b != '\r' && b != 0x1B) || b == 0x7F) {
+                intControls++;
+            }
+        }
+        boolean booBinary = (double) intControls / intSize > DBL_BINARY_CONTROLS_MAX;
+        LOGGER.debug("Checked if File is binary."
+                + " TabId=\"" + strTabId + "\""
+                + " pathFile=\"" + pathFile + "\""
+                + " Controls=" + intControls
+                + " Sample=" + intSize
+                + " Binary=" + booBinary);
+        return booBinary;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // CR and LF are single bytes as in ASCII, so lines could be split by bytes before decoding.
+    static boolean isAsciiCompatible(Charset charset) {
+
+        try {
+            return Arrays.equals("\r\n".getBytes(charset), ARR_CR_LF);
+        } catch (Throwable t) {
+            // Charset could be used for decoding only.
+            return true;
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // ASCII bytes are the same characters in this charset, so ASCII text could be used without decoder.
+    static boolean isAsciiDirect(Charset charset) {
+
+        String strName = charset.name();
+        return strName.equals("UTF-8") || strName.equals("US-ASCII")
+                || strName.startsWith("ISO-8859-") || strName.startsWith("windows-125");
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Checks 8 bytes at once.
+    static boolean isAscii(byte[] abyt, int intLen) {
+
+        int i = 0;
+        for (; i + 8 <= intLen; i += 8) {
+            if (((long) VH_LONG.get(abyt, i) & LNG_ASCII_MASK) != 0) {
+                return false;
+            }
+        }
+        for (; i < intLen; i++) {
+            if (abyt[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private static Charset detectBom(ByteBuffer mbb, int intSize) {
+
+        int b0 = intSize > 0 ? mbb.get(0) & 0xFF : -1;
+        int b1 = intSize > 1 ? mbb.get(1) & 0xFF : -1;
+        int b2 = intSize > 2 ? mbb.get(2) & 0xFF : -1;
+        int b3 = intSize > 3 ? mbb.get(3) & 0xFF : -1;
+        if (b0 == 0xEF && b1 == 0xBB && b2 == 0xBF) {
+            return StandardCharsets.UTF_8;
+        }
+        // UTF-16 and UTF-32 decoders read byte order from BOM.
+        if (b0 == 0x00 && b1 == 0x00 && b2 == 0xFE && b3 == 0xFF
+                || b0 == 0xFF && b1 == 0xFE && b2 == 0x00 && b3 == 0x00) {
+            return Charset.isSupported("UTF-32") ? Charset.forName("UTF-32") : null;
+        }
+        if (b0 == 0xFE && b1 == 0xFF || b0 == 0xFF && b1 == 0xFE) {
+            return StandardCharsets.UTF_16;
+        }
+        return null;
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static Charset detectUtf16(ByteBuffer mbb, int intSize) {
+
+        int intPairs = intSize / 2;
+        if (intPairs == 0) {
+            return null;
+        }
+        int intZerosEven = 0;
+        int intZerosOdd = 0;
+        for (int i = 0; i < intPairs * 2; i += 2) {
+            if (mbb.get(i) == 0) {
+                intZerosEven++;
+            }
+            if (mbb.get(i + 1) == 0) {
+                intZerosOdd++;
+            }
+        }
+        double dblEven = (double) intZerosEven / intPairs;
+        double dblOdd = (double) intZerosOdd / intPairs;
+        if (dblOdd >= DBL_UTF16_ZEROS_MIN && dblEven <= DBL_UTF16_ZEROS_OTHER_MAX) {
+            return StandardCharsets.UTF_16LE;
+        }
+        if (dblEven >= DBL_UTF16_ZEROS_MIN && dblOdd <= DBL_UTF16_ZEROS_OTHER_MAX) {
+            return StandardCharsets.UTF_16BE;
+        }
+        return null;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Returns number of multi byte sequences, 0 for ASCII only, -1 when it's not valid UTF-8.
+    // ASCII is skipped by 8 bytes at once, sequence cut at the end of sample is valid.
+    private static int checkUtf8(MappedByteBuffer mbb, int intStart, int intEnd) {
+
+        mbb.order(ByteOrder.LITTLE_ENDIAN);
+        int intSequences = 0;
+        int i = intStart;
+        while (i < intEnd) {
+            if (i + 8 <= intEnd && (mbb.getLong(i) & LNG_ASCII_MASK) == 0) {
+                i += 8;
+                continue;
+            }
+            int b = mbb.get(i) & 0xFF;
+            if (b < 0x80) {
+                i++;
+                continue;
+            }
+            int intLen;
+            int intMin;
+            if (b >= 0xC2 && b <= 0xDF) {
+                intLen = 2;
+                intMin = 0x80;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                intLen = 3;
+                intMin = 0x800;
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                intLen = 4;
+                intMin = 0x10000;
+            } else {
+                return -1;
+            }
+            int intCodePoint = b & (0xFF >> (intLen + 1));
+            for (int j = 1; j < intLen; j++) {
+                if (i + j >= intEnd) {
+                    return intSequences;
+                }
+                int c = mbb.get(i + j) & 0xFF;
+                if ((c & 0xC0) != 0x80) {
+                    return -1;
+                }
+                intCodePoint = (intCodePoint << 6) | (c & 0x3F);
+            }
+            if (intCodePoint < intMin || intCodePoint > 0x10FFFF
+                    || intCodePoint >= 0xD800 && intCodePoint <= 0xDFFF) {
+                return -1;
+            }
+            intSequences++;
+            i += intLen;
+        }
+        return intSequences;
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static Charset detectSingleByte(MappedByteBuffer mbb, int intSize, Charset charsetDefault) {
+
+        // Charset selected by user is single byte one, it's the best guess.
+        if (charsetDefault.newEncoder().maxBytesPerChar() == 1.0f) {
+            return charsetDefault;
+        }
+        int intLetters = 0;
+        int intHigh = 0;
+        for (int i = 0; i < intSize; i++) {
+            int b = mbb.get(i) & 0xFF;
+            if (b >= 0xC0) {
+                intHigh++;
+                intLetters++;
+            } else if (b >= 'A' && b <= 'Z' || b >= 'a' && b <= 'z') {
+                intLetters++;
+            }
+        }
+        String strCharsetName = STR_CHARSET_LATIN;
+        if (intLetters > 0 && (double) intHigh / intLetters >= DBL_CYRILLIC_HIGH_MIN) {
+            strCharsetName = STR_CHARSET_CYRILLIC;
+        }
+        return Charset.isSupported(strCharsetName) ? Charset.forName(strCharsetName) : StandardCharsets.ISO_8859_1;
+    }
+}
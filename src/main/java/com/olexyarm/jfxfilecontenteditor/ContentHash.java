@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+class ContentHash {
+
+    // 64 bit FNV-1a hash of text, CR is ignored.
+    // Hash of content is combined from hashes of paragraphs (see LineHashIndex),
+    // so hash of loaded text is the same as hash of paragraphs in editor whatever line endings are.
+    static final long LNG_HASH_INIT = 0xCBF29CE484222325L;
+    private static final long LNG_HASH_PRIME = 0x100000001B3L;
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    static long update(long lngHash, CharSequence cs) {
+
+        int intLen = cs.length();
+        for (int i = 0; i < intLen; i++) {
+            char chr = cs.charAt(i);
+            if (chr != '\r') {
+                lngHash = (lngHash ^ chr) * LNG_HASH_PRIME;
+            }
+        }
+        return lngHash;
+    }
+
+    // -------------------------------------------------------------------------------------
+    static long update(long lngHash, CharSequence cs, int intStart, int intEnd) {
+
+        for (int i = intStart; i < intEnd; i++) {
+            char chr = cs.charAt(i);
+            if (chr != '\r') {
+                lngHash = (lngHash ^ chr) * LNG_HASH_PRIME;
+            }
+        }
+        return lngHash;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Hash of paragraph is added to hash of content byte by byte.
+    static long updateLine(long lngHash, long lngLineHash) {
+
+        for (int i = 0; i < Long.BYTES; i++) {
+            lngHash = (lngHash ^ (lngLineHash & 0xFF)) * LNG_HASH_PRIME;
+            lngLineHash >>>= 8;
+        }
+        return lngHash;
+    }
+
+    // -------------------------------------------------------------------------------------
+    static long combine(long[] arrLineHashes, int intLines) {
+
+        long lngHash = LNG_HASH_INIT;
+        for (int i = 0; i < intLines; i++) {
+            lngHash = updateLine(lngHash, arrLineHashes[i]);
+        }
+        return lngHash;
+    }
+}
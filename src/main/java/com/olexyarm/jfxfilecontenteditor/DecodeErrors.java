@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.util.Arrays;
+
+class DecodeErrors {
+
+    // Positions of bytes which could not be decoded, as "paragraph offset" of replacement character.
+    // Position is packed in one long (paragraph in high int), positions are added in order, so array is sorted.
+    // Only the first INT_POSITIONS_MAX positions are kept, all errors are counted.
+    private static final int INT_POSITIONS_MAX = 1_000_000;
+    private static final int INT_CAPACITY_INITIAL = 64;
+
+    private long[] arrPositions = new long[INT_CAPACITY_INITIAL];
+    private int intPositions;
+    private long lngCount;
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    void add(int intParagraph, int intOffset) {
+
+        this.lngCount++;
+        if (this.intPositions == INT_POSITIONS_MAX) {
+            return;
+        }
+        if (this.intPositions == this.arrPositions.length) {
+            this.arrPositions = Arrays.copyOf(this.arrPositions, Math.min(INT_POSITIONS_MAX, this.intPositions * 2));
+        }
+        this.arrPositions[this.intPositions++] = pack(intParagraph, intOffset);
+    }
+
+    // -------------------------------------------------------------------------------------
+    long getCount() {
+        return this.lngCount;
+    }
+
+    // -------------------------------------------------------------------------------------
+    int getPositions() {
+        return this.intPositions;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Returns index of the first position at or after (the last one before) given position, -1 when there is no one.
+    int find(int intParagraph, int intOffset, boolean booNext) {
+
+        long lngPos = pack(intParagraph, intOffset);
+        int intIndex = Arrays.binarySearch(this.arrPositions, 0, this.intPositions, lngPos);
+        if (booNext) {
+            intIndex = intIndex >= 0 ? intIndex : -intIndex - 1;
+            return intIndex < this.intPositions ? intIndex : -1;
+        }
+        intIndex = intIndex >= 0 ? intIndex - 1 : -intIndex - 2;
+        return intIndex;
+    }
+
+    // -------------------------------------------------------------------------------------
+    int getParagraph(int intIndex) {
+        return (int) (this.arrPositions[intIndex] >>> 32);
+    }
+
+    // -------------------------------------------------------------------------------------
+    int getOffset(int intIndex) {
+        return (int) this.arrPositions[intIndex];
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private static long pack(int intParagraph, int intOffset) {
+        return ((long) intParagraph << 32) | (intOffset & 0xFFFFFFFFL);
+    }
+}
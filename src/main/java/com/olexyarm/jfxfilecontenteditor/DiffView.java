@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.SplitPane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.stage.Stage;
+import jfx.incubator.scene.control.richtext.LineNumberDecorator;
+import jfx.incubator.scene.control.richtext.RichTextArea;
+import jfx.incubator.scene.control.richtext.TextPos;
+import jfx.incubator.scene.control.richtext.model.RichTextModel;
+import jfx.incubator.scene.control.richtext.model.StyleAttributeMap;
+import jfx.incubator.scene.control.richtext.model.StyledTextModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class DiffView extends SplitPane {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiffView.class);
+
+    // Two read only text areas with rows aligned by FileDiff, changed rows are colored.
+    // Caret moved on one side is moved to the same row on other side, so both sides scroll together.
+    // Text color is used instead of background because of RichTextArea background bug (see Readme).
+    private final RichTextArea richTextAreaLeft;
+    private final RichTextArea richTextAreaRight;
+    private boolean booSyncing;
+
+    // -------------------------------------------------------------------------------------
+    // Construstors
+    // -------------------------------------------------------------------------------------
+    DiffView(FileDiff fileDiff, Font font) {
+
+        StyleAttributeMap mapStyleAttrFont = StyleAttributeMap.builder()
+                .setFontFamily(font.getFamily())
+                .setFontSize(font.getSize()).build();
+        this.richTextAreaLeft = createTextArea(fileDiff.strTextLeft, fileDiff, mapStyleAttrFont, font);
+        this.richTextAreaRight = createTextArea(fileDiff.strTextRight, fileDiff, mapStyleAttrFont, font);
+        this.getItems().addAll(this.richTextAreaLeft, this.richTextAreaRight);
+        this.sync(this.richTextAreaLeft, this.richTextAreaRight);
+        this.sync(this.richTextAreaRight, this.richTextAreaLeft);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    static void show(String strNameLeft, String strNameRight, FileDiff fileDiff, Font font) {
+
+        DiffView diffView = new DiffView(fileDiff, font);
+        Label lblSummary = new Label(" " + strNameLeft + "  <->  " + strNameRight
+                + ": deleted " + fileDiff.intDeleted + " line(s), inserted " + fileDiff.intInserted + " line(s)"
+                + ((fileDiff.intBlocks == 0) ? ", Files are equal." : "."));
+        VBox.setVgrow(diffView, Priority.ALWAYS);
+        VBox vbox = new VBox(lblSummary, diffView);
+        Scene scene = new Scene(vbox, Settings.INT_WINDOW_WIDTH, Settings.INT_WINDOW_HIGH);
+        Stage stage = new Stage();
+        stage.setScene(scene);
+        stage.setTitle("Compare " + strNameLeft + " with " + strNameRight);
+        stage.show();
+        LOGGER.debug("Shown compare window."
+                + " NameLeft=\"" + strNameLeft + "\""
+                + " NameRight=\"" + strNameRight + "\""
+                + " Rows=" + fileDiff.intRows
+                + " Blocks=" + fileDiff.intBlocks);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private static RichTextArea createTextArea(String strText, FileDiff fileDiff, StyleAttributeMap mapStyleAttrFont, Font font) {
+
+        StyledTextModel model = new RichTextModel();
+        RichTextArea richTextArea = new RichTextArea(model);
+        richTextArea.setLeftDecorator(new LineNumberDecorator());
+        richTextArea.setDisplayCaret(true);
+        richTextArea.setHighlightCurrentParagraph(true);
+        richTextArea.insertText(TextPos.ZERO, strText, mapStyleAttrFont);
+        // Styles are applied by blocks of rows, not by rows, number of blocks is small comparing with rows.
+        StyleAttributeMap mapStyleAttrDeleted = createStyle(font, Color.RED);
+        StyleAttributeMap mapStyleAttrInserted = createStyle(font, Color.GREEN);
+        StyleAttributeMap mapStyleAttrChanged = createStyle(font, Color.BLUE);
+        TextPos textPosDocEnd = model.getDocumentEnd();
+        for (int i = 0; i < fileDiff.intBlocks; i++) {
+            int intRowStart = fileDiff.arrBlocks[3 * i];
+            int intRowEnd = fileDiff.arrBlocks[3 * i + 1];
+            int intKind = fileDiff.arrBlocks[3 * i + 2];
+            StyleAttributeMap mapStyleAttr = (intKind == FileDiff.INT_ROW_DELETED) ? mapStyleAttrDeleted
+                    : (intKind == FileDiff.INT_ROW_INSERTED) ? mapStyleAttrInserted : mapStyleAttrChanged;
+            TextPos textPosStart = new TextPos(intRowStart, 0, 0, false);
+            TextPos textPosEnd = (intRowEnd >= fileDiff.intRows) ? textPosDocEnd : new TextPos(intRowEnd, 0, 0, false);
+            model.applyStyle(textPosStart, textPosEnd, mapStyleAttr, false);
+        }
+        richTextArea.setEditable(false);
+        richTextArea.select(TextPos.ZERO);
+        return richTextArea;
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static StyleAttributeMap createStyle(Font font, Color color) {
+
+        return StyleAttributeMap.builder()
+                .setFontFamily(font.getFamily())
+                .setFontSize(font.getSize())
+                .setTextColor(color)
+                .build();
+    }
+
+    // -------------------------------------------------------------------------------------
+    private void sync(RichTextArea richTextAreaFrom, RichTextArea richTextAreaTo) {
+
+        richTextAreaFrom.caretPositionProperty().addListener(new ChangeListener<TextPos>() {
+            @Override
+            public void changed(ObservableValue<? extends TextPos> observable, TextPos oldValue, TextPos newValue) {
+
+                if (booSyncing || newValue == null) {
+                    return;
+                }
+                booSyncing = true;
+                try {
+                    int intRow = Math.min(newValue.index(), richTextAreaTo.getParagraphCount() - 1);
+                    richTextAreaTo.select(new TextPos(Math.max(intRow, 0), 0, 0, false));
+                } finally {
+                    booSyncing = false;
+                }
+            }
+        });
+    }
+}
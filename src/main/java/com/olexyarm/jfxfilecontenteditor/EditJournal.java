@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class EditJournal {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EditJournal.class);
+
+    // Append only journal of edits of one File, used to recover not saved edits after crash.
+    // Edits are collected in memory and appended to "Journal/<hash of file path>.jnl" every few seconds
+    // by single background thread. Header has File path, size and modification time of File the edits apply to,
+    // every record is replaced range "paragraph offset paragraph offset" and inserted text.
+    static final Path PATH_JOURNAL_DIR = Path.of(Settings.STR_DIRECTORY_USER_HOME_PATH,
+            Settings.STR_JFX_EDITOR_SETTINGS_DIRECTORY, "Journal");
+    private static final String STR_JOURNAL_EXT = ".jnl";
+    private static final int INT_MAGIC = 0x4A464A4E;
+    private static final byte BYT_OP_REPLACE = 1;
+    private static final long LNG_FLUSH_INTERVAL_MS = 2000;
+    private static final int INT_SHUTDOWN_WAIT_SEC = 10;
+
+    private static final Set<EditJournal> SET_JOURNALS = ConcurrentHashMap.newKeySet();
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor((Runnable r) -> {
+        Thread thread = new Thread(r, "EditJournal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        EXECUTOR.scheduleWithFixedDelay(EditJournal::flushAll, LNG_FLUSH_INTERVAL_MS, LNG_FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    record Edit(int intParaStart, int intOffsetStart, int intParaEnd, int intOffsetEnd, String strText) {
+    }
+
+    private final String strTabId;
+    private final Path pathFile;
+    private final Path pathJournal;
+    private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    private final DataOutputStream dos = new DataOutputStream(this.baos);
+    private boolean booClosed;
+
+    // -------------------------------------------------------------------------------------
+    // Construstors
+    // -------------------------------------------------------------------------------------
+    private EditJournal(String strTabId, Path pathFile) {
+
+        this.strTabId = strTabId;
+        this.pathFile = pathFile.toAbsolutePath();
+        this.pathJournal = getPathJournal(pathFile);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    // Starts new journal for loaded File, old journal of the File is replaced.
+    static EditJournal open(String strTabId, Path pathFile) {
+
+        EditJournal editJournal = new EditJournal(strTabId, pathFile);
+        EXECUTOR.execute(editJournal::writeHeader);
+        SET_JOURNALS.add(editJournal);
+        return editJournal;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Returns edits not saved to File, or empty list when there is no journal or File was changed after it.
+    static List<Edit> read(String strTabId, Path pathFile) {
+
+        List<Edit> lstEdits = new ArrayList<>();
+        Path pathJournal = getPathJournal(pathFile);
+        if (!Files.exists(pathJournal)) {
+            return lstEdits;
+        }
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(pathJournal)))) {
+            if (dis.readInt() != INT_MAGIC) {
+                throw new IOException("Not a journal File.");
+            }
+            String strFilePath = dis.readUTF();
+            long lngSize = dis.readLong();
+            long lngTime = dis.readLong();
+            if (!strFilePath.equals(pathFile.toAbsolutePath().toString())
+                    || lngSize != Files.size(pathFile)
+                    || lngTime != Files.getLastModifiedTime(pathFile).toMillis()) {
+                LOGGER.info("Journal is ignored, File was changed after it."
+                        + " TabId=\"" + strTabId + "\""
+                        + " pathFile=\"" + pathFile + "\""
+                        + " pathJournal=\"" + pathJournal + "\"");
+                return lstEdits;
+            }
+            // The last record could be written partially.
+            while (true) {
+                byte bytOp;
+                try {
+                    bytOp = dis.readByte();
+                } catch (EOFException ex) {
+                    break;
+                }
+                if (bytOp != BYT_OP_REPLACE) {
+                    throw new IOException("Unknown journal record " + bytOp);
+                }
+                int intParaStart = dis.readInt();
+                int intOffsetStart = dis.readInt();
+                int intParaEnd = dis.readInt();
+                int intOffsetEnd = dis.readInt();
+                byte[] abytText = new byte[dis.readInt()];
+                dis.readFully(abytText);
+                lstEdits.add(new Edit(intParaStart, intOffsetStart, intParaEnd, intOffsetEnd,
+                        new String(abytText, StandardCharsets.UTF_8)));
+            }
+        } catch (EOFException ex) {
+            LOGGER.info("Journal ends with partial record."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathJournal=\"" + pathJournal + "\""
+                    + " Edits=" + lstEdits.size());
+        } catch (Throwable t) {
+            LOGGER.error("Could not read journal."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\""
+                    + " pathJournal=\"" + pathJournal + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+        }
+        return lstEdits;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Called on FX thread from model change listener.
+    synchronized void add(int intParaStart, int intOffsetStart, int intParaEnd, int intOffsetEnd, String strText) {
+
+        if (this.booClosed) {
+            return;
+        }
+        try {
+            byte[] abytText = strText.getBytes(StandardCharsets.UTF_8);
+            this.dos.writeByte(BYT_OP_REPLACE);
+            this.dos.writeInt(intParaStart);
+            this.dos.writeInt(intOffsetStart);
+            this.dos.writeInt(intParaEnd);
+            this.dos.writeInt(intOffsetEnd);
+            this.dos.writeInt(abytText.length);
+            this.dos.write(abytText);
+        } catch (IOException ex) {
+            // ByteArrayOutputStream does not throw.
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // File was saved, edits before are not needed anymore.
+    void reset() {
+
+        synchronized (this) {
+            if (this.booClosed) {
+                return;
+            }
+            this.baos.reset();
+        }
+        EXECUTOR.execute(this::writeHeader);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Tab was closed, journal is deleted.
+    void close() {
+
+        synchronized (this) {
+            this.booClosed = true;
+            this.baos.reset();
+        }
+        SET_JOURNALS.remove(this);
+        EXECUTOR.execute(() -> {
+            try {
+                Files.deleteIfExists(this.pathJournal);
+            } catch (Throwable t) {
+                LOGGER.error("Could not delete journal."
+                        + " TabId=\"" + this.strTabId + "\""
+                        + " pathJournal=\"" + this.pathJournal + "\""
+                        + " Throwable=\"" + t.toString() + "\"");
+            }
+        });
+    }
+
+    // -------------------------------------------------------------------------------------
+    static void shutdown() {
+
+        EXECUTOR.execute(EditJournal::flushAll);
+        EXECUTOR.shutdown();
+        try {
+            if (!EXECUTOR.awaitTermination(INT_SHUTDOWN_WAIT_SEC, TimeUnit.SECONDS)) {
+                LOGGER.error("Journal was not flushed in time.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private static void flushAll() {
+
+        for (EditJournal editJournal : SET_JOURNALS) {
+            editJournal.flush();
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private void flush() {
+
+        byte[] abytRecords;
+        synchronized (this) {
+            if (this.booClosed || this.baos.size() == 0) {
+                return;
+            }
+            abytRecords = this.baos.toByteArray();
+            this.baos.reset();
+        }
+        try (FileChannel fc = FileChannel.open(this.pathJournal, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer bb = ByteBuffer.wrap(abytRecords);
+            while (bb.hasRemaining()) {
+                fc.write(bb);
+            }
+            fc.force(false);
+        } catch (Throwable t) {
+            LOGGER.error("Could not write journal."
+                    + " TabId=\"" + this.strTabId + "\""
+                    + " pathJournal=\"" + this.pathJournal + "\""
+                    + " Bytes=" + abytRecords.length
+                    + " Throwable=\"" + t.toString() + "\"");
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private void writeHeader() {
+
+        try {
+            Files.createDirectories(PATH_JOURNAL_DIR);
+            ByteArrayOutputStream baosHeader = new ByteArrayOutputStream();
+            DataOutputStream dosHeader = new DataOutputStream(baosHeader);
+            dosHeader.writeInt(INT_MAGIC);
+            dosHeader.writeUTF(this.pathFile.toString());
+            dosHeader.writeLong(Files.size(this.pathFile));
+            dosHeader.writeLong(Files.getLastModifiedTime(this.pathFile).toMillis());
+            Files.write(this.pathJournal, baosHeader.toByteArray());
+        } catch (Throwable t) {
+            LOGGER.error("Could not create journal."
+                    + " TabId=\"" + this.strTabId + "\""
+                    + " pathFile=\"" + this.pathFile + "\""
+                    + " pathJournal=\"" + this.pathJournal + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static Path getPathJournal(Path pathFile) {
+
+        String strFilePath = pathFile.toAbsolutePath().toString();
+        String strName;
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            strName = HexFormat.of().formatHex(md.digest(strFilePath.getBytes(StandardCharsets.UTF_8)), 0, 16);
+        } catch (Throwable t) {
+            strName = Integer.toHexString(strFilePath.hashCode());
+        }
+        return PATH_JOURNAL_DIR.resolve(strName + STR_JOURNAL_EXT);
+    }
+}
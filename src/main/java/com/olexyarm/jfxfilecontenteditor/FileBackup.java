@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class FileBackup {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileBackup.class);
+
+    // Pending backup file is hard link to File (copy when links are not supported or File is written in place)
+    // made right before File is replaced, so File always exists and is replaced by one atomic move.
+    // Pending backup is rotated in only after File was replaced, it's deleted when replace failed.
+    // Backup files are rotated by single background thread, so rotations are done in order.
+    private static final String STR_BACKUP_PENDING_EXT = ".pending";
+    private static final int INT_SHUTDOWN_WAIT_SEC = 10;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor((Runnable r) -> {
+        Thread thread = new Thread(r, "FileBackup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    // Returns pending backup file or null, it's passed to commitBackup() or discardBackup() after File is replaced.
+    static Path backup(String strTabId, Path pathFile, boolean booCopy) {
+
+        if (pathFile == null) {
+            LOGGER.error("Could not create *bak File for null File."
+                    + " TabId=\"" + strTabId + "\"");
+            return null;
+        }
+
+        if (Files.isDirectory(pathFile)) {
+            LOGGER.error("Could not create *bak File for directory."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\"");
+            return null;
+        }
+        if (!Files.exists(pathFile)) {
+            LOGGER.trace("Could not create *bak File because File does not exist."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\"");
+            return null;
+        }
+        if (!Files.isRegularFile(pathFile)) {
+            LOGGER.error("Could not create *bak File because it's not a Regular File."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\"");
+            return null;
+        }
+        if (Settings.BOO_BACKUP_FILES_DAILY_ONLY) {
+            FileTime ft;
+            try {
+                ft = Files.getLastModifiedTime(pathFile);
+            } catch (IOException ex) {
+                LOGGER.error("Could not get getLastModifiedTime."
+                        + " TabId=\"" + strTabId + "\""
+                        + " pathFile=\"" + pathFile + "\""
+                        + " IOException=\"" + ex.toString() + "\"");
+                return null;
+            }
+            long lngFileModifiedDays = ft.to(TimeUnit.DAYS);
+
+            LocalDate localDate = LocalDate.now();
+            long lngLocalDateEpochDay = localDate.toEpochDay();
+
+            LOGGER.debug("Compare File Modified Days and Current Day."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\""
+                    + " FileTime=\"" + ft + "\""
+                    + " lngFileModifiedDays=\"" + lngFileModifiedDays + "\""
+                    + " localDate=\"" + localDate + "\""
+                    + " lngLocalDateEpochDay=\"" + lngLocalDateEpochDay + "\"");
+            if (lngFileModifiedDays - lngLocalDateEpochDay >= 0) {
+                LOGGER.debug("Skip updating backup files."
+                        + " TabId=\"" + strTabId + "\""
+                        + " pathFile=\"" + pathFile + "\""
+                        + " lngFileModifiedDays=\"" + lngFileModifiedDays + "\""
+                        + " lngLocalDateEpochDay=\"" + lngLocalDateEpochDay + "\"");
+                return null;
+            }
+        }
+
+        Path pathFileAbs = pathFile.toAbsolutePath();
+        String strFileNameNoExt = getFileNameNoExt(pathFileAbs);
+        Path pathFilePending = pathFileAbs.resolveSibling(strFileNameNoExt + "." + Settings.STR_BACKUP_FILES_EXT
+                + "." + System.currentTimeMillis() + STR_BACKUP_PENDING_EXT);
+        // Link is made to File itself, not to symbolic link.
+        Path pathFileReal;
+        try {
+            pathFileReal = pathFileAbs.toRealPath();
+        } catch (IOException ex) {
+            pathFileReal = pathFileAbs;
+        }
+        try {
+            if (booCopy) {
+                Files.copy(pathFileReal, pathFilePending, StandardCopyOption.COPY_ATTRIBUTES);
+            } else {
+                try {
+                    Files.createLink(pathFilePending, pathFileReal);
+                } catch (UnsupportedOperationException | IOException ex) {
+                    Files.copy(pathFileReal, pathFilePending, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+            }
+        } catch (Throwable t) {
+            LOGGER.error("Could not create pending *.bak File."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\""
+                    + " pathFilePending=\"" + pathFilePending + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+            return null;
+        }
+        LOGGER.debug("Created pending *.bak File."
+                + " TabId=\"" + strTabId + "\""
+                + " pathFile=\"" + pathFile + "\""
+                + " pathFilePending=\"" + pathFilePending + "\"");
+        return pathFilePending;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // File was replaced, pending backup is rotated in or stored.
+    static void commitBackup(String strTabId, Path pathFile, Path pathFilePending) {
+
+        Path pathFileAbs = pathFile.toAbsolutePath();
+        String strFileNameNoExt = getFileNameNoExt(pathFileAbs);
+        if (Settings.BOO_BACKUP_STORE_ENABLED) {
+            EXECUTOR.execute(() -> {
+                storePending(strTabId, pathFileAbs, pathFilePending);
+            });
+        } else {
+            EXECUTOR.execute(() -> {
+                rotate(strTabId, pathFileAbs.getParent(), strFileNameNoExt);
+            });
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // File was not replaced, pending backup is the same as File.
+    static void discardBackup(String strTabId, Path pathFilePending) {
+
+        try {
+            Files.deleteIfExists(pathFilePending);
+        } catch (Throwable t) {
+            LOGGER.error("Could not delete pending *.bak File."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFilePending=\"" + pathFilePending + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Wait for pending rotations, it's called when application is closing.
+    static void shutdown() {
+
+        EXECUTOR.shutdown();
+        try {
+            if (!EXECUTOR.awaitTermination(INT_SHUTDOWN_WAIT_SEC, TimeUnit.SECONDS)) {
+                LOGGER.error("Backup files rotation was not finished.");
+            }
+        } catch (InterruptedException ex) {
+            LOGGER.error("Interrupted waiting for backup files rotation."
+                    + " InterruptedException=\"" + ex.toString() + "\"");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private static void storePending(String strTabId, Path pathFile, Path pathFilePending) {
+
+        // Pending file is kept when it could not be stored, so content is not lost.
+        if (!BackupStore.store(strTabId, pathFile, pathFilePending)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(pathFilePending);
+        } catch (Throwable t) {
+            LOGGER.error("Could not delete pending *.bak File."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFile + "\""
+                    + " pathFilePending=\"" + pathFilePending + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static void rotate(String strTabId, Path pathDir, String strFileNameNoExt) {
+
+        // Backup files are "name.bak" (newest), "name(1).bak", ..., "name(Max-1).bak" (oldest).
+        // Directory is listed once, only existing backup files are renamed.
+        int intBackupMax = Settings.INT_BACKUP_FILES_MAX;
+        String strExt = "." + Settings.STR_BACKUP_FILES_EXT;
+        String strPendingPrefix = strFileNameNoExt + strExt + ".";
+        BitSet bitsSlots = new BitSet(intBackupMax);
+        List<String> lstPending = new ArrayList<>();
+        DirectoryStream.Filter<Path> filter = (Path path) -> path.getFileName().toString().startsWith(strFileNameNoExt);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(pathDir, filter)) {
+            for (Path path : stream) {
+                String strName = path.getFileName().toString();
+                if (strName.startsWith(strPendingPrefix) && strName.endsWith(STR_BACKUP_PENDING_EXT)) {
+                    lstPending.add(strName);
+                    continue;
+                }
+                int intSlot = getSlot(strName, strFileNameNoExt, strExt);
+                if (intSlot >= 0 && intSlot < intBackupMax) {
+                    bitsSlots.set(intSlot);
+                }
+            }
+        } catch (Throwable t) {
+            LOGGER.error("Could not list backup files."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathDir=\"" + pathDir + "\""
+                    + " FileName=\"" + strFileNameNoExt + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+            return;
+        }
+        // Pending files left by previous run are rotated too, the oldest first.
+        Collections.sort(lstPending, (String str1, String str2) -> {
+            return Long.compare(getPendingTime(str1, strPendingPrefix), getPendingTime(str2, strPendingPrefix));
+        });
+        LOGGER.debug("Rotating backup files."
+                + " TabId=\"" + strTabId + "\""
+                + " pathDir=\"" + pathDir + "\""
+                + " FileName=\"" + strFileNameNoExt + "\""
+                + " Slots=\"" + bitsSlots + "\""
+                + " Pending=\"" + lstPending + "\"");
+
+        for (String strPending : lstPending) {
+            Path pathFilePending = pathDir.resolve(strPending);
+            // Only backup files before first free slot should be moved.
+            int intSlotFree = bitsSlots.nextClearBit(0);
+            try {
+                if (intSlotFree >= intBackupMax) {
+                    intSlotFree = intBackupMax - 1;
+                    Path pathFileBackupOldest = getPathBackup(pathDir, strFileNameNoExt, strExt, intSlotFree);
+                    Files.deleteIfExists(pathFileBackupOldest);
+                    bitsSlots.clear(intSlotFree);
+                }
+                for (int i = intSlotFree - 1; i >= 0; i--) {
+                    Path pathFileBackup = getPathBackup(pathDir, strFileNameNoExt, strExt, i);
+                    Path pathFileBackupOld = getPathBackup(pathDir, strFileNameNoExt, strExt, i + 1);
+                    Files.move(pathFileBackup, pathFileBackupOld);
+                    bitsSlots.set(i + 1);
+                }
+                if (intBackupMax > 0) {
+                    Files.move(pathFilePending, getPathBackup(pathDir, strFileNameNoExt, strExt, 0));
+                    bitsSlots.set(0);
+                } else {
+                    Files.deleteIfExists(pathFilePending);
+                }
+            } catch (Throwable t) {
+                LOGGER.error("Could not rotate *.bak Files."
+                        + " TabId=\"" + strTabId + "\""
+                        + " pathDir=\"" + pathDir + "\""
+                        + " pathFilePending=\"" + pathFilePending + "\""
+                        + " Throwable=\"" + t.toString() + "\"");
+                return;
+            }
+            LOGGER.debug("Rotated *.bak Files."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathDir=\"" + pathDir + "\""
+                    + " pathFilePending=\"" + pathFilePending + "\""
+                    + " SlotFree=" + intSlotFree);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    static String getFileNameNoExt(Path pathFile) {
+
+        String strFileName = pathFile.getFileName().toString();
+        int intPos = strFileName.lastIndexOf(".");
+        if (intPos <= 0) {
+            return strFileName;
+        }
+        return strFileName.substring(0, intPos);
+    }
+
+    // -------------------------------------------------------------------------------------
+    static Path getPathBackup(Path pathDir, String strFileNameNoExt, String strExt, int intSlot) {
+
+        if (intSlot == 0) {
+            return pathDir.resolve(strFileNameNoExt + strExt);
+        }
+        return pathDir.resolve(strFileNameNoExt + "(" + intSlot + ")" + strExt);
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static int getSlot(String strName, String strFileNameNoExt, String strExt) {
+
+        if (!strName.endsWith(strExt) || strName.length() < strFileNameNoExt.length() + strExt.length()) {
+            return -1;
+        }
+        String strRest = strName.substring(strFileNameNoExt.length(), strName.length() - strExt.length());
+        if (strRest.isEmpty()) {
+            return 0;
+        }
+        if (strRest.length() < 3 || strRest.charAt(0) != '(' || strRest.charAt(strRest.length() - 1) != ')') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(strRest.substring(1, strRest.length() - 1));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static long getPendingTime(String strName, String strPendingPrefix) {
+
+        try {
+            return Long.parseLong(strName.substring(strPendingPrefix.length(),
+                    strName.length() - STR_BACKUP_PENDING_EXT.length()));
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package com.olexyarm.jfxfilecontenteditor;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.MappedByteBuffer;
@@ -24,17 +25,28 @@ import java.nio.channels.FileChannel;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
-import java.nio.file.FileSystems;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
-import java.nio.file.attribute.FileTime;
-import java.time.LocalDate;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyProperty;
@@ -46,10 +58,14 @@ import javafx.concurrent.Service;
 import javafx.concurrent.Task;
 import javafx.concurrent.Worker;
 import javafx.concurrent.WorkerStateEvent;
+import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.event.EventTarget;
 import javafx.event.EventType;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TabPane;
@@ -78,14 +94,74 @@ class FileContentEditor extends VBox {
     private static final String STR_LF_UNIX = "Unix LF";
     private static final String STR_CR_LF_MIX = "Mix CR LF";
     private static final String STR_NO_CR_LF = "no CR LF)";
+    private static final String STR_CR_LF_KEEP = "Keep CR LF";
     private static final String STR_CR_LF_WIP = "WIP";
+    private static final String STR_BINARY = "Binary";
     private final StringProperty spLineEnding = new SimpleStringProperty(STR_CR_LF_WIP);
 
     private enum enuLineEnding {
-        No, Win, Unix
+        No, Win, Unix, Keep
     };
     private enuLineEnding enuLineEndType = enuLineEnding.No;
 
+    // Result of File load, load thread does not change editor fields, they are set from it on FX thread
+    // only when load is still the current one (it was not cancelled and replaced by other load).
+    private static final class FileLoaded {
+
+        String strText;
+        // Load failed while reading, strText is the part read before error and other fields are not set.
+        boolean booComplete;
+        String strCharsetName;
+        // Line endings are null when line index of previous load was reused, they are the same as before.
+        String strLineEnding;
+        enuLineEnding enuLineEndType;
+        LineEndings lineEndings;
+        LineIndex lineIndex;
+        DecodeErrors decodeErrors;
+        long lngFileSize;
+        long lngFileTime;
+        long lngContentHash;
+        LineHashIndex lineHashIndex;
+    }
+    // Line endings as loaded, used for saving with enuLineEnding.Keep.
+    private LineEndings lineEndings;
+    // Line ends found by the last load, used to load File again with other charset.
+    private LineIndex lineIndex;
+    // Positions of bytes which could not be decoded by the last load.
+    private DecodeErrors decodeErrors = new DecodeErrors();
+    private int intDecodeErrorSelected;
+    private TextPos textPosDecodeErrorSelected;
+    // Journal of not saved edits, edits from journal are replayed after load when booJournalReplay is set.
+    private EditJournal editJournal;
+    private boolean booJournalReplay;
+    // Hash of content as it was loaded or saved last time, autosave skips File when content is the same.
+    private volatile long lngContentHashSaved;
+    // Hash of every paragraph, it's kept in sync with model by own listener which is not removed
+    // when text is changed by program, only loaded text is inserted without it, load builds index itself.
+    private volatile LineHashIndex lineHashIndex = new LineHashIndex();
+    private AutosaveScheduler autosaveScheduler;
+    // Tab restored on startup is not loaded until it is selected, caret is moved to saved position after load.
+    private boolean booLoadPending;
+    private TextPos textPosRestore = TextPos.ZERO;
+    // Content was released by TabEviction, File is loaded again with the same charset and line index.
+    private boolean booContentReleased;
+    // Followed File is read only, lines appended to File are added to the end of text.
+    // When lines were removed from the beginning of text, File is loaded again after following is stopped.
+    private boolean booFollow;
+    private boolean booFollowTrimmed;
+    private FileFollower fileFollower;
+    private long lngFileSizeLoaded;
+    // Size and modification time of File as it was loaded or saved, checked when FileWatcher gets event and before save.
+    // Not modified File changed by other program is reloaded, modified one is marked, so Save asks before overwriting it.
+    private volatile long lngFileSizeKnown = -1;
+    private volatile long lngFileTimeKnown;
+    private boolean booFileChangedExternally;
+    // Tab was closed, File saved on close is not watched again.
+    private boolean booClosed;
+    private Task<FileReload> taskFileReload;
+    // Lines are sorted or filtered on background thread, result replaces text when it was not edited meanwhile.
+    private Task<LineOperation> taskLineOperation;
+
     private final FileContentEditorState stateEditor = new FileContentEditorState();
 
     private Path pathFile;
@@ -94,6 +170,7 @@ class FileContentEditor extends VBox {
     private String strFileExt;
     private String strFileDir;
     private boolean booBinary;
+    private HexView hexView;
     private String strCharsetName;
     private boolean booFileModified;
     private boolean booTextWrap;
@@ -110,17 +187,36 @@ class FileContentEditor extends VBox {
     private final Label lblFileState;
     private final Label lblFileName;
     private final ProgressBar progressBar;
+    private final Button btnCancel;
 
-    private Task<String> taskFileLoad;
+    private Task<FileLoaded> taskFileLoad;
 
     private Service<String> serviceFileSave;
     private static final int INT_PROGRESS_BAR_STEPS = 20;
     private static final int INT_FILE_LEN_SPLIT = 10;
+    private static final int INT_LINE_BUFFER_SIZE = 4 * 1024;
+    private static final String STR_FILE_SAVE_OK = "OK";
+    private static final int INT_PARAGRAPH_OVERHEAD = 100;
+    // Found position in TreeSet and highlight style segment splitting paragraph.
+    private static final int INT_FOUND_OVERHEAD = 200;
+    private static final String STR_FILE_SAVE_TEMP_EXT = ".saving";
     private int intFileSaveCount = 0;
+    // Text could be edited while File is saved in background, File stays modified when edits were counted after save started.
+    private int intEditCount;
+    private int intEditCountSaveStart;
+    // Paragraphs and line endings copied on FX thread when save starts, save task writes only this copy.
+    private String[] arrLinesSave;
+    private LineEndingWriter lineEndingWriterSave;
+    // Save could be cancelled only until temporary File starts replacing File, after that it's finished as succeeded.
+    private final AtomicBoolean booSaveCancelable = new AtomicBoolean();
+    // Edit listener is never removed, text changed by program (load, reload, follow) is skipped by this flag,
+    // see changeTextUntracked().
+    private boolean booEditTrackingSuspended;
 
     private final ReadOnlyBooleanProperty booPropFocusedProperty;
     private final ChangeListener<Boolean> focusedPropertyChangeListener;
     private final StyledTextModel.Listener stmChangeListenerFileContent;
+    private final StyledTextModel.Listener stmChangeListenerLineHashes;
     private final ReadOnlyProperty<TextPos> textPosCaretPositionProperty;
     private final ChangeListener<TextPos> textPosCaretPositionChangeListener;
     private TextPos textPosCaretPosition = TextPos.ZERO;
@@ -149,7 +245,6 @@ class FileContentEditor extends VBox {
         this.pathFile = pathFile;
         this.parseFilePath(strId, pathFile);
 
-        // TODO: Add binary file show/edit
         this.booBinary = false;
         this.font = Settings.getFontDefault();
 
@@ -186,7 +281,25 @@ class FileContentEditor extends VBox {
         this.lblFileName = new Label(this.strFileName);
         this.progressBar = new ProgressBar(0);
 
-        this.hboxState.getChildren().addAll(this.lblFileName, this.progressBar, this.lblFileState);
+        // Cancel button is visible only while file is saving.
+        this.btnCancel = new Button("Cancel");
+        this.btnCancel.setVisible(false);
+        this.btnCancel.managedProperty().bind(this.btnCancel.visibleProperty());
+        this.btnCancel.setOnAction(new EventHandler<ActionEvent>() {
+            @Override
+            public void handle(ActionEvent actionEvent) {
+                actionEvent.consume();
+                btnCancel.setDisable(true);
+                if (serviceFileSave != null && serviceFileSave.isRunning() && booSaveCancelable.compareAndSet(true, false)) {
+                    LOGGER.info("Cancelling File Save."
+                            + " Id=\"" + strId + "\""
+                            + " pathFile=\"" + pathFile + "\"");
+                    serviceFileSave.cancel();
+                }
+            }
+        });
+
+        this.hboxState.getChildren().addAll(this.lblFileName, this.progressBar, this.btnCancel, this.lblFileState);
         this.hboxState.managedProperty().bind(this.hboxState.visibleProperty());
 
         this.getChildren().addAll(this.richTextArea, this.hboxState);
@@ -229,6 +342,9 @@ class FileContentEditor extends VBox {
 
         // -------------------------------------------------------------------------------------
         this.stmChangeListenerFileContent = (ch) -> {
+            if (this.booEditTrackingSuspended) {
+                return;
+            }
             boolean booIsEdit = ch.isEdit();
             TextPos tpStart = ch.getStart();
             TextPos tpEnd = ch.getEnd();
@@ -247,10 +363,32 @@ class FileContentEditor extends VBox {
             );
             if (booIsEdit) {
                 this.booFileModified = true;
+                this.intEditCount++;
+                if (this.lineEndings != null) {
+                    this.lineEndings.adjust(tpStart.index(), tpEnd.index(), intLinesAdded);
+                }
+                if (this.autosaveScheduler != null) {
+                    this.autosaveScheduler.edited(this);
+                }
+                if (this.editJournal != null) {
+                    this.editJournal.add(tpStart.index(), tpStart.offset(), tpEnd.index(), tpEnd.offset(),
+                            this.getTextAdded(tpStart, intLinesAdded, intCharsAddedTop, intCharsAddedBottom));
+                }
             }
         };
         this.model.addListener(this.stmChangeListenerFileContent);
 
+        this.stmChangeListenerLineHashes = (ch) -> {
+            if (!ch.isEdit()) {
+                return;
+            }
+            if (!this.lineHashIndex.adjust(ch.getStart().index(), ch.getEnd().index(), ch.getLinesAdded(), this.richTextArea::getPlainText)
+                    || this.lineHashIndex.getLines() != this.richTextArea.getParagraphCount()) {
+                this.rebuildLineHashes();
+            }
+        };
+        this.model.addListener(this.stmChangeListenerLineHashes);
+
         // -------------------------------------------------------------------------------------
         this.focusedPropertyChangeListener = new ChangeListener<Boolean>() {
             @Override
@@ -298,7 +436,62 @@ class FileContentEditor extends VBox {
 
     // -------------------------------------------------------------------------------------
     public String openFile() {
+        return this.openFile(null, Settings.BOO_CHARSET_DETECT_ENABLED, true);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Charset was changed, File is decoded again, line ends found by previous load are used when File was not changed.
+    public String reopenFile() {
+
+        LineIndex lineIndexReuse = null;
+        if (this.lineIndex != null && !this.booFileModified && this.lineIndex.isValid(this.pathFile)
+                && CharsetDetector.isAsciiCompatible(Charset.forName(this.strCharsetName))) {
+            lineIndexReuse = this.lineIndex;
+        }
+        // Charset was selected by user, it's not detected.
+        return this.openFile(lineIndexReuse, false, false);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Load in progress is not needed anymore, Tab was closed or File is loaded again.
+    public void cancelLoad() {
+
+        this.stopFollow();
+        if (this.taskFileLoad == null || this.taskFileLoad.isDone()) {
+            return;
+        }
+        LoadExecutor.remove(this.strId);
+        this.taskFileLoad.cancel();
+        LOGGER.info("Cancelled File load."
+                + " Id=\"" + this.strId + "\""
+                + " pathFile=\"" + this.pathFile + "\"");
+    }
 
+    // -------------------------------------------------------------------------------------
+    // Tab was closed, File is not watched anymore, also when it's saved on close.
+    // Journal is deleted when there is nothing to save, File being saved deletes it when save succeeds.
+    public void setClosed() {
+
+        this.booClosed = true;
+        FileWatcher.unwatch(this);
+        if (!this.booFileModified && !this.isSaving()) {
+            this.closeJournal();
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // File is checked if it looks binary only on new open (booCheckBinary), not when it's loaded again as text.
+    private String openFile(LineIndex lineIndexReuse, boolean booDetectCharset, boolean booCheckBinary) {
+
+        // Only one load at a time, otherwise both would insert text.
+        this.cancelLoad();
+        this.booFollowTrimmed = false;
+        if (this.hexView != null) {
+            // File opened Binary is opened as text again.
+            this.getChildren().set(this.getChildren().indexOf(this.hexView), this.richTextArea);
+            this.hexView = null;
+            this.booBinary = false;
+        }
         this.hboxState.visibleProperty().set(true);
         LOGGER.debug("# openFile."
                 + " booBinary=" + this.booBinary
@@ -340,6 +533,18 @@ class FileContentEditor extends VBox {
 
         File file = this.pathFile.toFile();
         long lngFileSize = file.length();
+        // Only new load is checked, File re-opened with charset selected by user is loaded as text.
+        if (booCheckBinary && !this.booJournalReplay && CharsetDetector.isBinary(this.strId, this.pathFile, lngFileSize)) {
+            LOGGER.info("File looks binary."
+                    + " Id=\"" + this.strId + "\""
+                    + " FileSize=" + lngFileSize
+                    + " pathFile=\"" + this.pathFile + "\"");
+            if (Utils.showMessage(AlertType.CONFIRMATION, "Opening File",
+                    "File \"" + this.pathFile.getFileName() + "\" looks binary.",
+                    "Open File in read only Hex view, or load it as text?", "Hex view", "Text")) {
+                return this.openFileBinary();
+            }
+        }
         if (lngFileSize > Integer.MAX_VALUE) {
             String strMsg = "File is too big."
                     + " FileSize=" + lngFileSize
@@ -370,19 +575,33 @@ class FileContentEditor extends VBox {
                 + " strFileSize=" + strFileSize
                 + " pathFile=\"" + this.pathFile + "\""
                 + " Binary=" + this.booBinary
-                + " strCharsetName=\"" + this.strCharsetName + "\"");
+                + " strCharsetName=\"" + this.strCharsetName + "\""
+                + " LineIndexReused=" + (lineIndexReuse != null));
 
+        // Charset is taken now, user could select other charset while File is loading.
+        final String strCharsetNameLoad = this.strCharsetName;
         this.taskFileLoad = new Task<>() {
             @Override
-            protected String call() throws Exception {
-
-                updateMessage("Task File loading started.");
-                updateProgress(0, lngFileSize);
-
-                Charset charset = Charset.forName(strCharsetName);
+            protected FileLoaded call() throws Exception {
+
+                FileLoaded fileLoaded = new FileLoaded();
+                ProgressReporter progressReporter = new ProgressReporter(strId, "File Loading", lngFileSize,
+                        (lngDone, lngTotal, strMessage) -> {
+                            updateProgress(lngDone, lngTotal);
+                            updateMessage(strMessage);
+                        });
+
+                Charset charset = Charset.forName(strCharsetNameLoad);
+                if (booDetectCharset) {
+                    charset = CharsetDetector.detect(strId, pathFile, lngFileSize, charset);
+                }
+                fileLoaded.strCharsetName = charset.name();
+                boolean booAsciiCompatible = CharsetDetector.isAsciiCompatible(charset);
+                this.booAsciiDirect = CharsetDetector.isAsciiDirect(charset);
                 CharsetDecoder charsetDecoder = charset.newDecoder();
-                charsetDecoder.onMalformedInput(CodingErrorAction.REPLACE);
-                charsetDecoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+                // Errors are reported to decode(), it replaces bytes and keeps position of replacement.
+                charsetDecoder.onMalformedInput(CodingErrorAction.REPORT);
+                charsetDecoder.onUnmappableCharacter(CodingErrorAction.REPORT);
                 charsetDecoder.replaceWith(Settings.STR_CHARSET_REPLACE_WITH_DEFAULT);
 
                 LOGGER.debug("Using charset."
@@ -395,14 +614,11 @@ class FileContentEditor extends VBox {
                         + " pathFile=\"" + pathFile + "\""
                 );
 
-                int intProgressStep = intFileSize / INT_PROGRESS_BAR_STEPS;
                 LOGGER.debug("Loading file."
                         + " Id=\"" + strId + "\""
                         + " FileSize=" + intFileSize
-                        + " ProgressStep=" + intProgressStep
                         + " pathFile=\"" + pathFile + "\"");
 
-                int intProgressCounter = 1;
                 long lngBytesReadTotal = 0;
                 int intRemaining;
                 int intBytesReadLast = -1;
@@ -412,108 +628,159 @@ class FileContentEditor extends VBox {
                 int intOsWinCrCount = 0;
                 int intOsWinLfCount = 0;
                 int intOsUnixCount = 0;
+                LineEndings lineEndingsLoaded = new LineEndings();
+                LineIndex lineIndexLoaded = new LineIndex();
+                // Line is hashed right after it was read, decoded text is not scanned again.
+                LineHashIndex lineHashIndexLoaded = LineHashIndex.forLoad();
                 StringBuilder sbFileContent = new StringBuilder();
                 long lngTimeStart = System.currentTimeMillis();
+                long lngFileTime = getFileTime(pathFile);
 
                 try (FileChannel fileChannel = (FileChannel) Files.newByteChannel(pathFile, EnumSet.of(StandardOpenOption.READ))) {
 
                     MappedByteBuffer mbb = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, lngFileSize);
-                    mbb.mark();
-                    int intPosStart = mbb.position();
-                    int intPosEnd;
-                    boolean booEolFound = false;
-                    while (true) {
-                        intRemaining = mbb.remaining();
-                        if (intRemaining == 0) {
-                            intPosEnd = mbb.position();
-                            if (intPosStart == intPosEnd) {
-                                break;
-                            }
-                            // get last line without EOL.
-                            String strLine = readLine(mbb, charsetDecoder, intPosStart, intPosEnd);
-                            sbFileContent.append(strLine);
-                            intBytesReadLast = strLine.length();
-                            break;
-                        }
-                        byte b = mbb.get();
-                        intRemaining = mbb.remaining();
-                        lngBytesReadTotal++;
-                        if (b == BYT_CR) {
-                            booEolFound = true;
-                            lngLinesLoaded++;
-                            intOsWinCrCount++;
-                            b = mbb.get();
-                            intRemaining = mbb.remaining();
-                            lngBytesReadTotal++;
-                            if (b == BYT_LF) {
-                                intOsWinLfCount++;
-                            } else {
-                                intErrors++;
-                                intErrorsMissingLF++;
-                            }
-                        } else if (b == BYT_LF) {
-                            booEolFound = true;
-                            lngLinesLoaded++;
-                            intOsUnixCount++;
-                        }
-                        if (booEolFound) {
-                            booEolFound = false;
-                            intPosEnd = mbb.position();
+                    if (lineIndexReuse != null) {
+                        // Line ends are known from previous load, lines are only decoded.
+                        lngLinesLoaded = lineIndexReuse.getLines();
+                        int intPosStart = 0;
+                        for (int i = 0; i <= lineIndexReuse.getLines(); i++) {
+                            int intPosEnd = (i < lineIndexReuse.getLines()) ? lineIndexReuse.getLineEnd(i) : intFileSize;
+                            mbb.position(intPosStart);
+                            mbb.mark();
                             String strLine = readLine(mbb, charsetDecoder, intPosStart, intPosEnd);
-                            /*
-                            int intBytesInLine = intPosEnd - intPosStart;
-                            byte[] abytLine = new byte[intBytesInLine];
-                            mbb.reset();
-                            mbb.get(abytLine);
-                            ByteBuffer byteBufferLine = ByteBuffer.wrap(abytLine);
-                            CharBuffer charBufferLine = charsetDecoder.decode(byteBufferLine);
-                            String strLine = charBufferLine.toString();
-                            //lstLines.add(strLine);
-                             */
                             sbFileContent.append(strLine);
+                            lineHashIndexLoaded.appendLoaded(strLine);
                             intBytesReadLast = strLine.length();
-                            mbb.mark();
+                            lngBytesReadTotal = intPosEnd;
                             intPosStart = intPosEnd;
-                        }
-// TODO: fix Progressp for file intFileSize < INT_PROGRESS_BAR_STEPS;                    
-                        if (intProgressStep == 1
-                                || lngBytesReadTotal >= intProgressStep * intProgressCounter) {
-                            long lngBytesTotal = lngBytesReadTotal + intRemaining;
-                            LOGGER.debug("Reading..."
-                                    + " intProgressCounter=" + intProgressCounter
-                                    + " lngBytesReadTotal=" + lngBytesReadTotal
-                                    + " intRemaining=" + intRemaining
-                                    + " lngBytesTotal=" + lngBytesTotal
-                                    + " lngLinesLoaded=" + lngLinesLoaded
-                                    + " intOsWinCrCount=" + intOsWinCrCount
-                                    + " intOsWinLfCount=" + intOsWinLfCount
-                                    + " intErrorsMissingLF=" + intErrorsMissingLF
-                                    + " intOsUnixCount=" + intOsUnixCount);
-                            updateProgress(lngBytesReadTotal, lngFileSize);
-                            updateMessage("File Loading " + " steps=" + intProgressCounter * INT_PROGRESS_BAR_STEPS + " bytes=" + lngBytesReadTotal);
-                            intProgressCounter++;
-                        }
-                        /*
-                        // For testing only !
-                        try {
-                            Thread.sleep(1);
-                        } catch (InterruptedException interrupted) {
-                            if (isCancelled()) {
+                            if (progressReporter.update(lngBytesReadTotal, lngBytesReadTotal) && isCancelled()) {
                                 updateMessage("Cancelled");
                                 break;
                             }
                         }
-                         */
-                        if (isCancelled()) {
-                            updateMessage("Cancelled");
-                            break;
+                    } else if (!booAsciiCompatible) {
+                        // CR and LF are not single bytes in UTF-16 and UTF-32, whole File is decoded at once.
+                        String strContent = decode(charsetDecoder, mbb, 0);
+                        sbFileContent.append(strContent);
+                        lineHashIndexLoaded.appendLoaded(strContent);
+                        lngBytesReadTotal = intFileSize;
+                        int intLen = strContent.length();
+                        for (int i = 0; i < intLen; i++) {
+                            char chr = strContent.charAt(i);
+                            if (chr == '\r') {
+                                lngLinesLoaded++;
+                                intOsWinCrCount++;
+                                if (i + 1 < intLen && strContent.charAt(i + 1) == '\n') {
+                                    intOsWinLfCount++;
+                                    lineEndingsLoaded.add(true);
+                                    i++;
+                                } else {
+                                    intErrors++;
+                                    intErrorsMissingLF++;
+                                    lineEndingsLoaded.addCr();
+                                }
+                            } else if (chr == '\n') {
+                                lngLinesLoaded++;
+                                intOsUnixCount++;
+                                lineEndingsLoaded.add(false);
+                            }
+                        }
+                    } else {
+                        mbb.mark();
+                        int intPosStart = mbb.position();
+                        int intPosEnd;
+                        boolean booEolFound = false;
+                        while (true) {
+                            intRemaining = mbb.remaining();
+                            if (intRemaining == 0) {
+                                intPosEnd = mbb.position();
+                                if (intPosStart == intPosEnd) {
+                                    break;
+                                }
+                                // get last line without EOL.
+                                String strLine = readLine(mbb, charsetDecoder, intPosStart, intPosEnd);
+                                sbFileContent.append(strLine);
+                                lineHashIndexLoaded.appendLoaded(strLine);
+                                intBytesReadLast = strLine.length();
+                                break;
+                            }
+                            byte b = mbb.get();
+                            intRemaining = mbb.remaining();
+                            lngBytesReadTotal++;
+                            if (b == BYT_CR) {
+                                booEolFound = true;
+                                lngLinesLoaded++;
+                                intOsWinCrCount++;
+                                if (intRemaining == 0) {
+                                    // CR is the last byte in file.
+                                    intErrors++;
+                                    intErrorsMissingLF++;
+                                    lineEndingsLoaded.addCr();
+                                } else {
+                                    b = mbb.get();
+                                    intRemaining = mbb.remaining();
+                                    lngBytesReadTotal++;
+                                    if (b == BYT_LF) {
+                                        intOsWinLfCount++;
+                                        lineEndingsLoaded.add(true);
+                                    } else {
+                                        intErrors++;
+                                        intErrorsMissingLF++;
+                                        lineEndingsLoaded.addCr();
+                                        // Byte after CR starts next line.
+                                        mbb.position(mbb.position() - 1);
+                                        intRemaining = mbb.remaining();
+                                        lngBytesReadTotal--;
+                                    }
+                                }
+                            } else if (b == BYT_LF) {
+                                booEolFound = true;
+                                lngLinesLoaded++;
+                                intOsUnixCount++;
+                                lineEndingsLoaded.add(false);
+                            }
+                            if (booEolFound) {
+                                booEolFound = false;
+                                intPosEnd = mbb.position();
+                                lineIndexLoaded.add(intPosEnd);
+                                String strLine = readLine(mbb, charsetDecoder, intPosStart, intPosEnd);
+                                /*
+                                int intBytesInLine = intPosEnd - intPosStart;
+                                byte[] abytLine = new byte[intBytesInLine];
+                                mbb.reset();
+                                mbb.get(abytLine);
+                                ByteBuffer byteBufferLine = ByteBuffer.wrap(abytLine);
+                                CharBuffer charBufferLine = charsetDecoder.decode(byteBufferLine);
+                                String strLine = charBufferLine.toString();
+                                //lstLines.add(strLine);
+                                 */
+                                sbFileContent.append(strLine);
+                                lineHashIndexLoaded.appendLoaded(strLine);
+                                intBytesReadLast = strLine.length();
+                                mbb.mark();
+                                intPosStart = intPosEnd;
+                                // Progress is checked once per line, it's throttled by bytes and time.
+                                if (progressReporter.update(lngBytesReadTotal, lngBytesReadTotal)) {
+                                    LOGGER.trace("Reading..."
+                                            + " lngBytesReadTotal=" + lngBytesReadTotal
+                                            + " intRemaining=" + intRemaining
+                                            + " lngLinesLoaded=" + lngLinesLoaded
+                                            + " intOsWinCrCount=" + intOsWinCrCount
+                                            + " intOsWinLfCount=" + intOsWinLfCount
+                                            + " intErrorsMissingLF=" + intErrorsMissingLF
+                                            + " intOsUnixCount=" + intOsUnixCount);
+                                    if (isCancelled()) {
+                                        updateMessage("Cancelled");
+                                        break;
+                                    }
+                                }
+                            }
                         }
                     }
                 } catch (Throwable t) {
                     updateMessage("Error loading File." + t.getMessage());
                     LOGGER.error("Could not Read File."
                             + " Id=\"" + strId + "\""
-                            + " intUpdateProgressCounter=" + intProgressCounter
                             + " lngBytesReadTotal=" + lngBytesReadTotal
                             + " intBytesReadLast=" + intBytesReadLast
                             + " lngLinesLoaded=" + lngLinesLoaded
@@ -523,25 +790,44 @@ class FileContentEditor extends VBox {
                             + " intOsUnixCount=" + intOsUnixCount
                             + " pathFile=\"" + pathFile + "\""
                             + " Throwable=\"" + t.toString() + "\"");
-                    return sbFileContent.toString();
+                    fileLoaded.strText = sbFileContent.toString();
+                    return fileLoaded;
                 }
-                updateMessage("File Loaded (" + lngBytesReadTotal + " bytes).");
+                if (isCancelled()) {
+                    return null;
+                }
+                progressReporter.finish("File Loaded", lngBytesReadTotal, lngBytesReadTotal);
 
-                String strLineEnding;
-                if (intOsWinCrCount > 0 && intOsUnixCount > 0) {
+                String strLineEnding = null;
+                if (lineIndexReuse != null) {
+                    // Line endings are the same as loaded before.
+                } else if (intOsWinCrCount > 0 && intOsUnixCount > 0) {
+                    // Mixed line endings are saved as they were loaded.
                     strLineEnding = STR_CR_LF_MIX;
-                    enuLineEndType = enuLineEnding.Win;
+                    fileLoaded.enuLineEndType = enuLineEnding.Keep;
                 } else if (intOsWinCrCount > 0) {
                     strLineEnding = STR_CR_LF_WIN;
-                    enuLineEndType = enuLineEnding.Win;
+                    fileLoaded.enuLineEndType = enuLineEnding.Win;
                 } else if (intOsUnixCount > 0) {
                     strLineEnding = STR_LF_UNIX;
-                    enuLineEndType = enuLineEnding.Unix;
+                    fileLoaded.enuLineEndType = enuLineEnding.Unix;
                 } else {
                     strLineEnding = STR_NO_CR_LF;
-                    enuLineEndType = enuLineEnding.No;
+                    fileLoaded.enuLineEndType = enuLineEnding.No;
+                }
+                if (lineIndexReuse == null) {
+                    lineEndingsLoaded.finishLoad();
+                    fileLoaded.strLineEnding = strLineEnding;
+                    fileLoaded.lineEndings = lineEndingsLoaded;
+                    lineIndexLoaded.finishLoad(pathFile, lngFileSize);
+                    fileLoaded.lineIndex = booAsciiCompatible ? lineIndexLoaded : null;
                 }
-                spLineEnding.set(strLineEnding);
+                fileLoaded.decodeErrors = this.decodeErrorsLoaded;
+                fileLoaded.lngFileSize = lngFileSize;
+                fileLoaded.lngFileTime = lngFileTime;
+                // Index of line hashes is set when text is inserted.
+                fileLoaded.lineHashIndex = lineHashIndexLoaded.finishLoad();
+                fileLoaded.lngContentHash = fileLoaded.lineHashIndex.getContentHash();
 
                 long lngTimeFinish = System.currentTimeMillis();
                 long lngTimeTaken = lngTimeFinish - lngTimeStart;
@@ -557,44 +843,316 @@ class FileContentEditor extends VBox {
                         + " TimeTaken=" + (float) lngTimeTaken / 1000.00 + " sec" + " (" + lngTimeTaken + " ms}"
                         + " pathFile=\"" + pathFile + "\"");
 
-                return sbFileContent.toString();
+                fileLoaded.strText = sbFileContent.toString();
+                fileLoaded.booComplete = true;
+                return fileLoaded;
             }
 
+            // Buffer is reused for all lines, ASCII line is copied to String without decoder.
+            private byte[] abytLine = new byte[INT_LINE_BUFFER_SIZE];
+            private CharBuffer charBufferLine = CharBuffer.allocate(INT_LINE_BUFFER_SIZE);
+            private boolean booAsciiDirect;
+            private int intLinesRead;
+            private final DecodeErrors decodeErrorsLoaded = new DecodeErrors();
+
             private String readLine(MappedByteBuffer mbb, CharsetDecoder charsetDecoder, int intPosStart, int intPosEnd)
                     throws CharacterCodingException {
 
+                int intParagraph = this.intLinesRead++;
                 if (intPosEnd <= intPosStart) {
                     return "";
                 }
                 int intBytesInLine = intPosEnd - intPosStart;
-                byte[] abytLine = new byte[intBytesInLine];
+                if (intBytesInLine > this.abytLine.length) {
+                    this.abytLine = new byte[Math.max(intBytesInLine, this.abytLine.length * 2)];
+                }
                 mbb.reset();
-                mbb.get(abytLine);
-                ByteBuffer byteBufferLine = ByteBuffer.wrap(abytLine);
-                CharBuffer charBufferLine = charsetDecoder.decode(byteBufferLine);
-                String strLine = charBufferLine.toString();
+                mbb.get(this.abytLine, 0, intBytesInLine);
+                if (this.booAsciiDirect && CharsetDetector.isAscii(this.abytLine, intBytesInLine)) {
+                    // Latin-1 String is compact and is the same as ASCII.
+                    return new String(this.abytLine, 0, intBytesInLine, StandardCharsets.ISO_8859_1);
+                }
+                ByteBuffer byteBufferLine = ByteBuffer.wrap(this.abytLine, 0, intBytesInLine);
+                String strLine = decode(charsetDecoder, byteBufferLine, intParagraph);
                 return strLine;
             }
 
+            // Bytes which could not be decoded are replaced, position of replacement is added to decode errors.
+            private String decode(CharsetDecoder charsetDecoder, ByteBuffer byteBuffer, int intParagraph) {
+
+                String strReplacement = charsetDecoder.replacement();
+                int intCapacity = (int) (byteBuffer.remaining() * (double) charsetDecoder.maxCharsPerByte()) + strReplacement.length();
+                if (this.charBufferLine.capacity() < intCapacity) {
+                    this.charBufferLine = CharBuffer.allocate(intCapacity);
+                }
+                CharBuffer charBuffer = this.charBufferLine;
+                charBuffer.clear();
+                charsetDecoder.reset();
+                int intScanned = 0;
+                int intParagraphStart = 0;
+                while (true) {
+                    CoderResult coderResult = charsetDecoder.decode(byteBuffer, charBuffer, true);
+                    if (coderResult.isUnderflow()) {
+                        coderResult = charsetDecoder.flush(charBuffer);
+                        if (coderResult.isUnderflow()) {
+                            break;
+                        }
+                    }
+                    if (coderResult.isOverflow()) {
+                        charBuffer = grow(charBuffer, strReplacement.length());
+                        continue;
+                    }
+                    // Paragraph of error is found by LFs decoded before it.
+                    int intPos = charBuffer.position();
+                    for (; intScanned < intPos; intScanned++) {
+                        if (charBuffer.get(intScanned) == '\n') {
+                            intParagraph++;
+                            intParagraphStart = intScanned + 1;
+                        }
+                    }
+                    this.decodeErrorsLoaded.add(intParagraph, intPos - intParagraphStart);
+                    if (charBuffer.remaining() < strReplacement.length()) {
+                        charBuffer = grow(charBuffer, strReplacement.length());
+                    }
+                    charBuffer.put(strReplacement);
+                    byteBuffer.position(byteBuffer.position() + coderResult.length());
+                }
+                charBuffer.flip();
+                return charBuffer.toString();
+            }
+
+            private CharBuffer grow(CharBuffer charBuffer, int intMore) {
+
+                CharBuffer charBufferNew = CharBuffer.allocate(charBuffer.capacity() * 2 + intMore);
+                charBuffer.flip();
+                charBufferNew.put(charBuffer);
+                if (charBuffer == this.charBufferLine) {
+                    this.charBufferLine = charBufferNew;
+                }
+                return charBufferNew;
+            }
+
         };
         this.processTask();
 
         LOGGER.debug("# openFile-Task starting."
                 + " Id=\"" + strId + "\""
                 + " task=\"" + taskFileLoad + "\"");
-        new Thread(taskFileLoad).start();
-        LOGGER.debug("# openFile-Task started."
+        LoadExecutor.submit(this.strId, this.taskFileLoad);
+        LOGGER.debug("# openFile-Task submitted."
                 + " Id=\"" + strId + "\""
                 + " task=\"" + taskFileLoad + "\"");
         return "";
     }
 
     // -------------------------------------------------------------------------------------
-    public void openFileBinary() {
+    // Binary File is shown in read only Hex view instead of text area.
+    public String openFileBinary() {
 
-// TODO: implement read and show binary
+        this.hboxState.visibleProperty().set(true);
+        if (this.isSaving()) {
+            String strMsg = "Could not open File Binary while it's being saved.";
+            this.lblFileState.textProperty().set(strMsg);
+            return strMsg;
+        }
+        this.cancelLoad();
+        HexView hexViewNew;
+        try {
+            hexViewNew = new HexView(this.strId, this.pathFile, this.font.getSize());
+        } catch (Throwable t) {
+            String strMsg = "Could not open File Binary."
+                    + " pathFile=\"" + this.pathFile + "\""
+                    + " Throwable=\"" + t.toString() + "\"";
+            LOGGER.error(strMsg);
+            this.lblFileState.textProperty().set(strMsg);
+            return strMsg;
+        }
         this.booBinary = true;
-        this.openFile();
+        this.booFileModified = false;
+        this.booFollow = false;
+        this.richTextArea.setEditable(true);
+        // Text is not shown while Hex view is shown, memory is released.
+        this.lstTextPosFound.clear();
+        this.booFoundAllDone = false;
+        this.changeTextUntracked(() -> this.richTextArea.clear());
+        VBox.setVgrow(hexViewNew, Priority.ALWAYS);
+        Node nodeView = (this.hexView == null) ? this.richTextArea : this.hexView;
+        this.getChildren().set(this.getChildren().indexOf(nodeView), hexViewNew);
+        this.hexView = hexViewNew;
+        this.spLineEnding.set(STR_BINARY);
+        this.lblFileState.textProperty().set("File opened Binary, read only, size " + ProgressReporter.formatSize(hexViewNew.getFileSize()) + ".");
+        LOGGER.info("Opened File Binary."
+                + " Id=\"" + this.strId + "\""
+                + " FileSize=" + hexViewNew.getFileSize()
+                + " pathFile=\"" + this.pathFile + "\"");
+        return "";
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Lines appended to File (log) are added to the end of text without loading whole File again.
+    public String followFile(boolean booFollowNew) {
+
+        if (booFollowNew == this.booFollow) {
+            return "";
+        }
+        if (!booFollowNew) {
+            this.booFollow = false;
+            this.stopFollow();
+            this.richTextArea.setEditable(true);
+            if (this.booFollowTrimmed) {
+                // Text is not the whole File, it's loaded again so it could be edited and saved.
+                return this.openFile(null, false, false);
+            }
+            this.lblFileState.textProperty().set("Stopped following File.");
+            return "";
+        }
+        if (this.booBinary) {
+            return "Could not follow File opened Binary.";
+        }
+        if (this.isSaving()) {
+            return "Could not follow File while it's being saved.";
+        }
+        if (this.pathFile == null) {
+            return "Could not follow File which was not saved.";
+        }
+        if (this.booFileModified) {
+            return "Could not follow modified File, save it first.";
+        }
+        if (!CharsetDetector.isAsciiCompatible(Charset.forName(this.strCharsetName))) {
+            return "Could not follow File with charset " + this.strCharsetName + ".";
+        }
+        this.booFollow = true;
+        this.richTextArea.setEditable(false);
+        if (this.booLoadPending || (this.taskFileLoad != null && !this.taskFileLoad.isDone())) {
+            // Following starts when File is loaded.
+            return "";
+        }
+        this.startFollow();
+        return "";
+    }
+
+    // -------------------------------------------------------------------------------------
+    public boolean isFollow() {
+        return this.booFollow;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Lines are sorted, duplicates removed or lines filtered by regular expression strPattern on background thread,
+    // whole text is replaced with the result as one edit, so it could be undone and saved as any other edit.
+    public String transformLines(LineOperation.enuOperation operation, String strPattern) {
+
+        if (this.booBinary) {
+            return "Could not change lines of File opened Binary.";
+        }
+        if (this.booFollow) {
+            return "Could not change lines of followed File.";
+        }
+        if (this.booLoadPending || (this.taskFileLoad != null && !this.taskFileLoad.isDone())) {
+            return "Could not change lines of File which is not loaded.";
+        }
+        if (this.taskLineOperation != null && !this.taskLineOperation.isDone()) {
+            return "Lines of File are being changed, wait until it's done.";
+        }
+        final Pattern pattern;
+        if (operation == LineOperation.enuOperation.KEEP_MATCHING || operation == LineOperation.enuOperation.REMOVE_MATCHING) {
+            if (strPattern == null || strPattern.isEmpty()) {
+                return "Pattern is empty.";
+            }
+            try {
+                pattern = Pattern.compile(strPattern);
+            } catch (PatternSyntaxException e) {
+                return "Invalid pattern: " + e.getDescription() + ".";
+            }
+        } else {
+            pattern = null;
+        }
+        // Text stays editable, task works over copy of lines and hashes taken here.
+        final String[] arrLines = this.getLines();
+        final long[] arrLineHashes = this.getLineHashes();
+        final Task<LineOperation> task = new Task<>() {
+            @Override
+            protected LineOperation call() throws Exception {
+                return LineOperation.apply(strId, operation, arrLines, arrLineHashes, pattern, this::isCancelled);
+            }
+        };
+        task.onSucceededProperty().set(new EventHandler<WorkerStateEvent>() {
+            @Override
+            public void handle(WorkerStateEvent event) {
+                event.consume();
+                LineOperation lineOperation = task.getValue();
+                if (lineOperation == null || task != taskLineOperation) {
+                    return;
+                }
+                applyLineOperation(operation, lineOperation);
+            }
+        });
+        task.onFailedProperty().set(new EventHandler<WorkerStateEvent>() {
+            @Override
+            public void handle(WorkerStateEvent event) {
+                event.consume();
+                Throwable t = task.getException();
+                lblFileState.textProperty().set("Could not change lines.");
+                LOGGER.error("Could not change lines."
+                        + " Id=\"" + strId + "\""
+                        + " Operation=" + operation
+                        + " Throwable=\"" + (t == null ? "" : t.toString()) + "\"");
+            }
+        });
+        this.taskLineOperation = task;
+        this.hboxState.visibleProperty().set(true);
+        this.lblFileState.textProperty().set("Changing lines, " + operation + ".");
+        Thread.ofVirtual().name("FileLines-" + this.strId).start(task);
+        return "";
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Called on FX thread with text up to the last LF appended to File.
+    void appendFollowed(String strText) {
+
+        if (this.fileFollower == null) {
+            return;
+        }
+        TextPos textPosEnd = this.getDocumentEnd();
+        // Caret at the end of text stays at the end, new lines are scrolled into view.
+        boolean booScroll = textPosEnd.equals(this.textPosCaretPosition);
+        int intParaEnd = textPosEnd.index();
+        // Appended text is not an edit, it's not journaled and does not make File modified.
+        this.changeTextUntracked(() -> this.richTextArea.insertText(textPosEnd, strText, this.mapStyleAttrFont));
+        int intLinesAdded = this.richTextArea.getParagraphCount() - 1 - intParaEnd;
+        if (this.lineEndings != null) {
+            this.lineEndings.adjust(intParaEnd, intParaEnd, intLinesAdded);
+        }
+        int intLinesOver = this.richTextArea.getParagraphCount() - Settings.getFollowLinesMax();
+        if (intLinesOver > 0) {
+            this.changeTextUntracked(() -> this.richTextArea.replaceText(TextPos.ZERO, new TextPos(intLinesOver, 0, 0, true), ""));
+            if (this.lineEndings != null) {
+                this.lineEndings.adjust(0, intLinesOver, 0);
+            }
+            // Positions of decode errors are not valid after lines were removed.
+            this.decodeErrors = new DecodeErrors();
+            this.booFollowTrimmed = true;
+        }
+        if (booScroll) {
+            this.richTextArea.select(this.getDocumentEnd());
+        }
+        this.lblFileState.textProperty().set("Following File, added " + intLinesAdded + " lines"
+                + (this.booFollowTrimmed ? ", only the last " + Settings.getFollowLinesMax() + " lines are kept." : "."));
+        LOGGER.trace("Appended followed File."
+                + " Id=\"" + this.strId + "\""
+                + " LinesAdded=" + intLinesAdded
+                + " LinesRemoved=" + Math.max(0, intLinesOver));
+    }
+
+    // -------------------------------------------------------------------------------------
+    // File became shorter than loaded part, it was truncated or replaced by log rotation.
+    void followTruncated(FileFollower follower) {
+
+        if (follower != this.fileFollower) {
+            return;
+        }
+        this.fileFollower = null;
+        // Following continues after File is loaded.
+        this.openFile(null, false, false);
     }
 
     // -------------------------------------------------------------------------------------
@@ -603,6 +1161,24 @@ class FileContentEditor extends VBox {
         // pathFileSaveAs == null for saving new of existing file.
         // pathFileSaveAs != null for saving File As.
 
+        if (this.booBinary) {
+            LOGGER.debug("Could not save File opened Binary, it's read only."
+                    + " Id=\"" + this.strId + "\""
+                    + " pathFile=\"" + this.pathFile + "\"");
+            return false;
+        }
+        if (this.booLoadPending) {
+            LOGGER.debug("Could not save File, it was not loaded yet."
+                    + " Id=\"" + this.strId + "\""
+                    + " pathFile=\"" + this.pathFile + "\"");
+            return false;
+        }
+        if (this.isSaving()) {
+            LOGGER.debug("Could not save File, it's being saved already."
+                    + " Id=\"" + this.strId + "\""
+                    + " pathFile=\"" + this.pathFile + "\"");
+            return false;
+        }
         this.hboxState.visibleProperty().set(true);
 
         if (pathFileSaveAs == null) {
@@ -614,38 +1190,72 @@ class FileContentEditor extends VBox {
                         + " strReason=\"" + strReason + "\"");
                 return false;
             }
+            if ((this.booFileChangedExternally || this.isFileChanged())
+                    && !Utils.showMessage(AlertType.CONFIRMATION, "Save File",
+                            "File \"" + this.strFileName + "\" was changed by other program after it was loaded.",
+                            "Do you want to overwrite it?", "Overwrite", "Cancel")) {
+                LOGGER.info("Saving File changed by other program was denied."
+                        + " Id=\"" + this.strId + "\""
+                        + " pathFile=\"" + this.pathFile + "\"");
+                return false;
+            }
         } else {
             this.pathFile = pathFileSaveAs;
             this.parseFilePath(this.strId, this.pathFile);
         }
+        return this.saveFileStart();
+    }
 
-        if (Settings.BOO_BACKUP_FILES_EABLED) {
-//Old            renameFileToBackupReverted(strTabID, fileToSave);
-            renameFileToBackup(this.strId, this.pathFile);
+    // -------------------------------------------------------------------------------------
+    // Used by autosave, File was already checked by canSaveFile() on autosave thread.
+    boolean saveFileChecked() {
+
+        if (this.serviceFileSave != null && this.serviceFileSave.isRunning()) {
+            LOGGER.debug("File is being saved already."
+                    + " Id=\"" + this.strId + "\""
+                    + " pathFile=\"" + this.pathFile + "\"");
+            return false;
         }
+        if (this.booFileChangedExternally || this.isFileChanged()) {
+            // User decides on Save if changes of other program are overwritten, autosave waits for Save or load.
+            this.booFileChangedExternally = true;
+            LOGGER.info("Autosave skipped File changed by other program."
+                    + " Id=\"" + this.strId + "\""
+                    + " pathFile=\"" + this.pathFile + "\"");
+            return false;
+        }
+        this.hboxState.visibleProperty().set(true);
+        return this.saveFileStart();
+    }
+
+    // -------------------------------------------------------------------------------------
+    private boolean saveFileStart() {
 
         if (this.serviceFileSave == null) {
             this.serviceFileSave = new Service<>() {
                 @Override
                 protected Task<String> createTask() {
+                    final String[] arrLines = arrLinesSave;
+                    final LineEndingWriter lineEndingWriter = lineEndingWriterSave;
+                    arrLinesSave = null;
+                    lineEndingWriterSave = null;
                     return new Task<String>() {
                         @Override
                         protected String call() throws InterruptedException {
                             LOGGER.debug("Service: File Save started."
                                     + " pathFile=\"" + pathFile + "\"");
-                            updateMessage("File Save started.");
 
                             String strText;
                             String strComment = "";
                             int intParagraphToSave = 0;
-                            int intParagraphCount = richTextArea.getParagraphCount();
+                            int intParagraphCount = arrLines.length;
                             if (intParagraphCount == 0) {
                                 strText = "";
                                 strComment = " empty file";
                                 LOGGER.debug("Service: Fle saving empty file."
                                         + " pathFile=\"" + pathFile + "\"");
                             } else {
-                                strText = richTextArea.getPlainText(intParagraphToSave);
+                                strText = arrLines[intParagraphToSave];
                             }
                             Charset charset = Charset.forName(strCharsetName);
                             LOGGER.info("Service: File saving" + strComment + "."
@@ -654,45 +1264,76 @@ class FileContentEditor extends VBox {
                                     + " ParagraphToSave=" + intParagraphToSave
                                     + " charset=\"" + charset + "\""
                                     + " pathFile=\"" + pathFile + "\"");
+                            // Line ending is selected once, paragraphs are separated by it, no line ending after last one.
                             int intParagraphsSaved = 0;
                             long lngCharsWroteTotal = 0;
                             int intTextLen;
-                            int intParagraphStepDelta = intParagraphCount / INT_PROGRESS_BAR_STEPS;
-                            int intParagraphStep = 0;
-                            try (BufferedWriter writer = Files.newBufferedWriter(pathFile, charset)) {
+                            // Chars written are used as bytes for throughput, it's exact for single byte charsets.
+                            ProgressReporter progressReporter = new ProgressReporter(strId, "File Saving", intParagraphCount,
+                                    (lngDone, lngTotal, strMessage) -> {
+                                        updateProgress(lngDone, lngTotal);
+                                        updateMessage(strMessage);
+                                    });
+                            // File is written to temporary file first, original file is replaced only when all is written,
+                            // so cancelled or failed save does not change original file.
+                            Path pathFileTemp;
+                            try {
+                                pathFileTemp = createFileTemp(pathFile);
+                            } catch (Throwable t) {
+                                String strMsg = "Could not create temporary File."
+                                        + " Id=\"" + strId + "\""
+                                        + " pathFile=\"" + pathFile + "\""
+                                        + " Throwable=\"" + t.toString() + "\"";
+                                LOGGER.error(strMsg);
+                                updateMessage("Could not save file. " + t.getMessage());
+                                return strMsg;
+                            }
+                            boolean booCommitted = false;
+                            long lngContentHash = ContentHash.LNG_HASH_INIT;
+                            try (BufferedWriter writer = Files.newBufferedWriter(pathFileTemp, charset)) {
                                 while (true) {
                                     intTextLen = strText.length();
                                     //SaveParagraph(writer, strText);
                                     writer.write(strText, 0, intTextLen);
+                                    lngContentHash = ContentHash.updateLine(lngContentHash, ContentHash.update(ContentHash.LNG_HASH_INIT, strText));
                                     lngCharsWroteTotal += intTextLen;
                                     intParagraphsSaved++;
-                                    if (enuLineEndType.equals(enuLineEnding.Win)) {
-                                        writer.write(BYT_CR);
-                                        writer.write(BYT_LF);
-                                    } else if (enuLineEndType.equals(enuLineEnding.Unix)) {
-                                        writer.write(BYT_LF);
-                                    } else if (intParagraphCount > 1 && intParagraphToSave < intParagraphCount - 1) {
-                                        writer.write(BYT_CR);
-                                        writer.write(BYT_LF);
-                                    }
-                                    if (intParagraphsSaved > intParagraphStep) {
-                                        intParagraphStep += intParagraphStepDelta;
-                                        LOGGER.info("Service: File saving Paragraph."
+                                    if (progressReporter.update(intParagraphsSaved, lngCharsWroteTotal)) {
+                                        LOGGER.debug("Service: File saving Paragraph."
                                                 + " ParagraphCountSaved=" + intParagraphsSaved
                                                 + " TextLen=" + intTextLen
                                                 + " CharsWroteTotal=" + lngCharsWroteTotal);
-                                        updateProgress(intParagraphsSaved, intParagraphCount);
-                                        updateMessage("File Saving " + " lines=" + intParagraphsSaved + " chars=" + lngCharsWroteTotal);
+                                        if (isCancelled()) {
+                                            break;
+                                        }
                                     }
                                     if (intParagraphsSaved >= intParagraphCount) {
-                                        updateProgress(intParagraphCount, intParagraphCount);
-                                        updateMessage("File Saved " + " lines=" + intParagraphsSaved
-                                                + " chars=" + lngCharsWroteTotal);
                                         break;
                                     }
+                                    lineEndingWriter.writeLineEnding(writer, intParagraphToSave);
                                     intParagraphToSave++;
-                                    strText = richTextArea.getPlainText(intParagraphToSave);
+                                    strText = arrLines[intParagraphToSave];
+                                }
+                                writer.close();
+                                if (isCancelled() || !booSaveCancelable.compareAndSet(true, false)) {
+                                    LOGGER.info("Service: File saving cancelled."
+                                            + " Id=\"" + strId + "\""
+                                            + " intParagraphCount=" + intParagraphCount
+                                            + " intParagraphsSaved=" + intParagraphsSaved
+                                            + " pathFile=\"" + pathFile + "\"");
+                                    return "Cancelled";
+                                }
+                                // Cancel is not possible anymore, File is being replaced.
+                                Platform.runLater(() -> btnCancel.setDisable(true));
+                                String strError = commitFile(strId, pathFileTemp, pathFile);
+                                if (strError != null) {
+                                    updateMessage(strError);
+                                    return strError;
                                 }
+                                booCommitted = true;
+                                lngContentHashSaved = lngContentHash;
+                                lngFileSizeKnown = Files.size(pathFile);
+                                lngFileTimeKnown = getFileTime(pathFile);
                             } catch (Throwable t) {
                                 String strMsg = "Could not save file."
                                         + " Id=\"" + strId + "\""
@@ -702,15 +1343,20 @@ class FileContentEditor extends VBox {
                                         + " pathFile=\"" + pathFile + "\""
                                         + " Throwable=\"" + t.toString() + "\"";
                                 LOGGER.error(strMsg);
+                                if (!isCancelled()) {
+                                    updateMessage("Could not save file. " + t.getMessage());
+                                }
                                 return strMsg;
+                            } finally {
+                                if (!booCommitted) {
+                                    deleteFileTemp(strId, pathFileTemp);
+                                }
                             }
-                            updateProgress(intParagraphsSaved, intParagraphCount);
-                            String strMsg = "File Save finished ("
-                                    + intParagraphsSaved + " lines, " + lngCharsWroteTotal + " chars" + ").";
-                            updateMessage(strMsg);
+                            String strMsg = progressReporter.finish("File Save finished " + intParagraphsSaved + " lines",
+                                    intParagraphsSaved, lngCharsWroteTotal);
                             LOGGER.debug(strMsg + " pathFile=\"" + pathFile + "\"");
                             intFileSaveCount++;
-                            return "OK";
+                            return STR_FILE_SAVE_OK;
                         }
 
                         boolean SaveParagraph(BufferedWriter writer, String strText) throws IOException {
@@ -799,7 +1445,7 @@ class FileContentEditor extends VBox {
                     EventType<?> eventType = event.getEventType();
                     event.consume();
 
-                    richTextArea.getModel().removeListener(stmChangeListenerFileContent);
+                    // Edit listener stays, text typed while File is saved is journaled and makes File modified.
                     textPosCaretPositionProperty.removeListener(textPosCaretPositionChangeListener);
                     booPropFocusedProperty.removeListener(focusedPropertyChangeListener);
 
@@ -808,6 +1454,8 @@ class FileContentEditor extends VBox {
                     lblFileState.textProperty().set("");
                     progressBar.progressProperty().bind(serviceFileSave.progressProperty());
                     lblFileState.textProperty().bind(serviceFileSave.messageProperty());
+                    btnCancel.setDisable(false);
+                    btnCancel.setVisible(true);
                     LOGGER.debug("onScheduledProperty serviceFileSave."
                             + " Id=\"" + strId + "\""
                             + " intFileSaveCount=" + intFileSaveCount
@@ -833,11 +1481,12 @@ class FileContentEditor extends VBox {
                 public void handle(WorkerStateEvent event) {
                     EventType<?> eventType = event.getEventType();
 
-                    richTextArea.getModel().addListener(stmChangeListenerFileContent);
                     textPosCaretPositionProperty.addListener(textPosCaretPositionChangeListener);
                     booPropFocusedProperty.addListener(focusedPropertyChangeListener);
 
-                    booFileModified = false;
+                    // Original file is not changed when save failed.
+                    booFileModified = true;
+                    btnCancel.setVisible(false);
                     progressBar.progressProperty().unbind();
                     lblFileState.textProperty().unbind();
                     String strMsg = serviceFileSave.messageProperty().get();
@@ -850,23 +1499,69 @@ class FileContentEditor extends VBox {
                 }
             });
 
+            this.serviceFileSave.onCancelledProperty().set(new EventHandler<WorkerStateEvent>() {
+                @Override
+                public void handle(WorkerStateEvent event) {
+                    EventType<?> eventType = event.getEventType();
+                    event.consume();
+
+                    textPosCaretPositionProperty.addListener(textPosCaretPositionChangeListener);
+                    booPropFocusedProperty.addListener(focusedPropertyChangeListener);
+
+                    // Content was written to temporary file only, original file is not changed.
+                    booFileModified = true;
+                    btnCancel.setVisible(false);
+                    progressBar.progressProperty().unbind();
+                    progressBar.setProgress(0);
+                    lblFileState.textProperty().unbind();
+                    lblFileState.textProperty().set("File Save cancelled, file was not changed.");
+                    LOGGER.info("onCancelledProperty serviceFileSave."
+                            + " Id=\"" + strId + "\""
+                            + " pathFile=\"" + pathFile + "\""
+                            + " eventType=\"" + eventType + "\""
+                            + " event=\"" + event + "\"");
+                }
+            });
+
             this.serviceFileSave.onSucceededProperty().set(new EventHandler<WorkerStateEvent>() {
                 @Override
                 public void handle(WorkerStateEvent event) {
                     EventType<?> eventType = event.getEventType();
                     event.consume();
 
-                    richTextArea.getModel().addListener(stmChangeListenerFileContent);
                     textPosCaretPositionProperty.addListener(textPosCaretPositionChangeListener);
                     booPropFocusedProperty.addListener(focusedPropertyChangeListener);
 
-                    booFileModified = false;
                     ReadOnlyObjectProperty<Worker.State> stateProperty = serviceFileSave.stateProperty();
                     Worker.State state = stateProperty.getValue();
                     String stateName = state.name();
                     progressBar.progressProperty().unbind();
                     lblFileState.textProperty().unbind();
+                    btnCancel.setVisible(false);
                     String strResult = serviceFileSave.getValue();
+                    // Task returns error message when file could not be written.
+                    boolean booSaved = STR_FILE_SAVE_OK.equals(strResult);
+                    boolean booEditedWhileSaving = intEditCount != intEditCountSaveStart;
+                    booFileModified = !booSaved || booEditedWhileSaving;
+                    if (booSaved && booClosed) {
+                        // File was saved on close of Tab, edits are not needed for recovery anymore.
+                        closeJournal();
+                    } else if (booSaved) {
+                        // Journal is kept when text was edited while saving, its header does not match saved File,
+                        // so it's not replayed; edits are journaled again after the next save.
+                        if (!booEditedWhileSaving && editJournal != null) {
+                            editJournal.reset();
+                        }
+                        booFileChangedExternally = false;
+                        // File could be saved As with other path.
+                        if (!booClosed) {
+                            FileWatcher.watch(FileContentEditor.this, pathFile);
+                        }
+                        // Autosave stopped for File changed by other program continues with edits made while saving.
+                        if (booFileModified && autosaveScheduler != null) {
+                            autosaveScheduler.edited(FileContentEditor.this);
+                        }
+                    }
                     String strMsg = serviceFileSave.getMessage();
                     lblFileState.textProperty().set(strMsg);
 
@@ -892,6 +1587,11 @@ class FileContentEditor extends VBox {
         LOGGER.info("Saving file."
                 + " Id=\"" + this.strId + "\""
                 + " pathFile=\"" + this.pathFile + "\"");
+        // Text could be edited while File is saved, so paragraphs are copied here and edits after are counted.
+        this.arrLinesSave = this.getLines();
+        this.lineEndingWriterSave = this.getLineEndingWriter();
+        this.intEditCountSaveStart = this.intEditCount;
+        this.booSaveCancelable.set(true);
         this.serviceFileSave.start();
 
         this.booFileModified = false;
@@ -906,21 +1606,150 @@ class FileContentEditor extends VBox {
     }
 
     // -------------------------------------------------------------------------------------
-    public String find(String strTextFind, String strTextReplace, boolean booAll, boolean booRevers, boolean booCaseSensitive) {
+    // Replace File with backup from BackupStore and load it again.
+    public void restoreBackup(BackupStore.Entry entry) {
 
-        if (strTextFind == null || strTextFind.isEmpty()) {
-            String strMsg = "Text for search not set.";
-            LOGGER.error(strMsg + " pathFile=\"" + pathFile + "\"");
-            return strMsg;
+        this.hboxState.visibleProperty().set(true);
+        if (this.isSaving()) {
+            this.lblFileState.textProperty().set("Could not restore backup while File is being saved.");
+            return;
         }
+        final Path pathFileRestore = this.pathFile;
+        Task<String> taskRestore = new Task<>() {
+            @Override
+            protected String call() throws IOException {
 
-        String strTextFindLatest = this.stateEditor.getFind();
-        if (strTextFindLatest == null
-                || booCaseSensitive != this.booCaseSensitiveLatest
-                || !strTextFind.equals(strTextFindLatest)) {
-            this.booFoundAllDone = false;
-            this.selectionClear();
-            this.lstTextPosFound.clear();
+                updateMessage("Restoring backup " + entry + ".");
+                Path pathFileTemp = createFileTemp(pathFileRestore);
+                String strError = BackupStore.restore(strId, pathFileRestore, entry, pathFileTemp);
+                if (strError == null) {
+                    strError = commitFile(strId, pathFileTemp, pathFileRestore);
+                }
+                if (strError != null) {
+                    deleteFileTemp(strId, pathFileTemp);
+                }
+                return strError;
+            }
+        };
+        taskRestore.onSucceededProperty().set(new EventHandler<WorkerStateEvent>() {
+            @Override
+            public void handle(WorkerStateEvent event) {
+                event.consume();
+                String strError = taskRestore.getValue();
+                LOGGER.debug("onSucceededProperty taskRestore."
+                        + " Id=\"" + strId + "\""
+                        + " pathFile=\"" + pathFileRestore + "\""
+                        + " Backup=\"" + entry + "\""
+                        + " Error=\"" + strError + "\"");
+                if (strError != null) {
+                    lblFileState.textProperty().set(strError);
+                    return;
+                }
+                changeTextUntracked(() -> closeFile());
+                openFile();
+            }
+        });
+        taskRestore.onFailedProperty().set(new EventHandler<WorkerStateEvent>() {
+            @Override
+            public void handle(WorkerStateEvent event) {
+                event.consume();
+                String strMsg = "Could not restore backup " + entry + ".";
+                LOGGER.error(strMsg
+                        + " Id=\"" + strId + "\""
+                        + " pathFile=\"" + pathFileRestore + "\""
+                        + " Throwable=\"" + taskRestore.getException() + "\"");
+                lblFileState.textProperty().set(strMsg);
+            }
+        });
+        new Thread(taskRestore).start();
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Copy of lines of current content, it's called on FX thread, background tasks get the copy.
+    String[] getLines() {
+
+        int intParagraphCount = this.richTextArea.getParagraphCount();
+        String[] arrLines = new String[intParagraphCount];
+        for (int i = 0; i < intParagraphCount; i++) {
+            arrLines[i] = this.richTextArea.getPlainText(i);
+        }
+        return arrLines;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Hash of current content combined from hashes of paragraphs, it's called on autosave thread.
+    long computeContentHash() {
+
+        long[] arrLineHashes = this.getLineHashes();
+        return ContentHash.combine(arrLineHashes, arrLineHashes.length);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Copy of paragraph hashes, it could be called on background thread.
+    // When index is not in sync with model (text is changed right now), hashes are computed from paragraphs
+    // the same way as File Save reads them.
+    long[] getLineHashes() {
+
+        int intParagraphCount = this.richTextArea.getParagraphCount();
+        long[] arrLineHashes = this.lineHashIndex.toArray(intParagraphCount);
+        if (arrLineHashes == null) {
+            arrLineHashes = LineHashIndex.of(intParagraphCount, this.richTextArea::getPlainText).toArray(intParagraphCount);
+        }
+        return arrLineHashes;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Index built by load is used when it matches inserted text, paragraphs could be split by RichTextArea
+    // in other way than load did (for example CR without LF).
+    private void setLineHashesLoaded(LineHashIndex lineHashIndexNew) {
+
+        if (lineHashIndexNew != null && lineHashIndexNew.getLines() == this.richTextArea.getParagraphCount()) {
+            this.lineHashIndex = lineHashIndexNew;
+        } else {
+            this.rebuildLineHashes();
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private void rebuildLineHashes() {
+
+        int intParagraphCount = this.richTextArea.getParagraphCount();
+        this.lineHashIndex = LineHashIndex.of(intParagraphCount, this.richTextArea::getPlainText);
+        LOGGER.debug("Built line hashes from paragraphs."
+                + " Id=\"" + this.strId + "\""
+                + " Paragraphs=" + intParagraphCount);
+    }
+
+    // -------------------------------------------------------------------------------------
+    boolean isContentSaved() {
+        return this.computeContentHash() == this.lngContentHashSaved;
+    }
+
+    // -------------------------------------------------------------------------------------
+    public void closeJournal() {
+
+        if (this.editJournal != null) {
+            this.editJournal.close();
+            this.editJournal = null;
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    public String find(String strTextFind, String strTextReplace, boolean booAll, boolean booRevers, boolean booCaseSensitive) {
+
+        if (strTextFind == null || strTextFind.isEmpty()) {
+            String strMsg = "Text for search not set.";
+            LOGGER.error(strMsg + " pathFile=\"" + pathFile + "\"");
+            return strMsg;
+        }
+
+        String strTextFindLatest = this.stateEditor.getFind();
+        if (strTextFindLatest == null
+                || booCaseSensitive != this.booCaseSensitiveLatest
+                || !strTextFind.equals(strTextFindLatest)) {
+            this.booFoundAllDone = false;
+            this.selectionClear();
+            this.lstTextPosFound.clear();
             this.stateEditor.setFind(strTextFind);
         } else {
             if (booAll) {
@@ -1192,6 +2021,40 @@ class FileContentEditor extends VBox {
         return strResult;
     }
 
+    // -------------------------------------------------------------------------------------
+    // Selects replacement character of the next/previous byte which could not be decoded after/before caret.
+    public String gotoDecodeError(boolean booNext) {
+
+        if (this.decodeErrors.getCount() == 0) {
+            return "There are no decode errors.";
+        }
+        int intIndex;
+        if (this.textPosDecodeErrorSelected != null && this.textPosDecodeErrorSelected.equals(this.textPosCaretPosition)) {
+            // Caret is still at the end of selected error.
+            intIndex = booNext ? this.intDecodeErrorSelected + 1 : this.intDecodeErrorSelected - 1;
+            if (intIndex >= this.decodeErrors.getPositions()) {
+                intIndex = -1;
+            }
+        } else {
+            intIndex = this.decodeErrors.find(this.intCaretPosParagraphCurrent, this.intCaretPosOffsetCurrent, booNext);
+        }
+        if (intIndex < 0) {
+            return booNext ? "There are no decode errors after cursor." : "There are no decode errors before cursor.";
+        }
+        // Positions are as loaded, File could be edited after it.
+        int intParagraph = Math.min(this.decodeErrors.getParagraph(intIndex), this.richTextArea.getParagraphCount() - 1);
+        int intLen = this.richTextArea.getPlainText(intParagraph).length();
+        int intOffset = Math.min(this.decodeErrors.getOffset(intIndex), intLen);
+        int intOffsetEnd = Math.min(intOffset + 1, intLen);
+        TextPos textPosStart = new TextPos(intParagraph, intOffset, intOffset, false);
+        TextPos textPosEnd = new TextPos(intParagraph, intOffsetEnd, intOffsetEnd, true);
+        this.richTextArea.select(textPosStart, textPosEnd);
+        this.richTextArea.requestFocus();
+        this.intDecodeErrorSelected = intIndex;
+        this.textPosDecodeErrorSelected = this.textPosCaretPosition;
+        return "Decode error " + (intIndex + 1) + " of " + this.decodeErrors.getCount() + ".";
+    }
+
     // -------------------------------------------------------------------------------------
     private boolean textRangeSelectReplace(int intParagraph, int intPosStart, int intPosEnd, boolean booReverse, String strReplace) {
 
@@ -1311,7 +2174,7 @@ class FileContentEditor extends VBox {
     // -------------------------------------------------------------------------------------
     // Helpers
     // -------------------------------------------------------------------------------------
-    private static String canSaveFile(String strId, Path pathFile) {
+    static String canSaveFile(String strId, Path pathFile) {
 
         if (pathFile == null) {
             LOGGER.error("Cannot save null File."
@@ -1360,134 +2223,265 @@ class FileContentEditor extends VBox {
     }
 
     // -------------------------------------------------------------------------------------
-    private static void renameFileToBackup(String strTabId, Path pathFile) {
-
-        if (pathFile == null) {
-            LOGGER.error("Could not create *bak File for null File."
-                    + " TabId=\"" + strTabId + "\"");
-            return;
+    // Temporary File is created next to File symbolic link points to, so it could be moved over it.
+    // Name is unique, so save and restore of backup never write the same temporary File.
+    private static Path createFileTemp(Path pathFile) throws IOException {
+
+        Path pathFileReal = getPathFileReal(pathFile);
+        String strPrefix = pathFileReal.getFileName().toString() + ".";
+        while (true) {
+            Path pathFileTemp = pathFileReal.resolveSibling(strPrefix + System.nanoTime() + STR_FILE_SAVE_TEMP_EXT);
+            try {
+                return Files.createFile(pathFileTemp);
+            } catch (FileAlreadyExistsException ex) {
+                // Created by other save at the same time, next name is tried.
+            }
         }
+    }
 
-        if (Files.isDirectory(pathFile)) {
-            LOGGER.error("Could not create *bak File for directory."
-                    + " TabId=\"" + strTabId + "\""
-                    + " pathFile=\"" + pathFile + "\"");
-            return;
-        }
-        if (!Files.exists(pathFile)) {
-            LOGGER.trace("Could not create *bak File because File does not exist."
-                    + " TabId=\"" + strTabId + "\""
-                    + " pathFile=\"" + pathFile + "\"");
-            return;
-        }
-        if (!Files.isRegularFile(pathFile)) {
-            LOGGER.error("Could not create *bak File because it's not a Regular File."
-                    + " TabId=\"" + strTabId + "\""
-                    + " pathFile=\"" + pathFile + "\"");
-            return;
+    // -------------------------------------------------------------------------------------
+    private static Path getPathFileReal(Path pathFile) {
+
+        Path pathFileAbs = pathFile.toAbsolutePath();
+        try {
+            return pathFileAbs.toRealPath();
+        } catch (IOException ex) {
+            // New File.
+            return pathFileAbs;
         }
-        if (Settings.BOO_BACKUP_FILES_DAILY_ONLY) {
-            FileTime ft;
-            try {
-                ft = Files.getLastModifiedTime(pathFile);
-            } catch (IOException ex) {
-                LOGGER.error("Could not get getLastModifiedTime."
-                        + " TabId=\"" + strTabId + "\""
-                        + " pathFile=\"" + pathFile + "\""
-                        + " IOException=\"" + ex.toString() + "\"");
-                return;
-            }
-            long lngFileModifiedDays = ft.to(TimeUnit.DAYS);
+    }
 
-            LocalDate localDate = LocalDate.now();
-            long lngLocalDateEpochDay = localDate.toEpochDay();
+    // -------------------------------------------------------------------------------------
+    private static void deleteFileTemp(String strTabId, Path pathFileTemp) {
 
-            LOGGER.debug("Compare File Modified Days and Current Day."
-                    + " TabId=\"" + strTabId + "\""
-                    + " pathFile=\"" + pathFile + "\""
-                    + " FileTime=\"" + ft + "\""
-                    + " lngFileModifiedDays=\"" + lngFileModifiedDays + "\""
-                    + " localDate=\"" + localDate + "\""
-                    + " lngLocalDateEpochDay=\"" + lngLocalDateEpochDay + "\"");
-            if (lngFileModifiedDays - lngLocalDateEpochDay >= 0) {
-                LOGGER.debug("Skip updating backup files."
+        try {
+            if (Files.deleteIfExists(pathFileTemp)) {
+                LOGGER.debug("Deleted temporary File."
                         + " TabId=\"" + strTabId + "\""
-                        + " pathFile=\"" + pathFile + "\""
-                        + " lngFileModifiedDays=\"" + lngFileModifiedDays + "\""
-                        + " lngLocalDateEpochDay=\"" + lngLocalDateEpochDay + "\"");
-                return;
+                        + " pathFileTemp=\"" + pathFileTemp + "\"");
             }
+        } catch (Throwable t) {
+            LOGGER.error("Could not delete temporary File."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFileTemp=\"" + pathFileTemp + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
         }
+    }
 
-        // Compute FilePath string without file extension.
-        String strFilePath = pathFile.toString();
-        String strFilePathNoExt;
-        int intPos = strFilePath.lastIndexOf(".");
-        if (intPos <= 0) {
-            strFilePathNoExt = strFilePath;
-        } else {
-            strFilePathNoExt = strFilePath.substring(0, intPos);
+    // -------------------------------------------------------------------------------------
+    // Replace File with completely written temporary File by one move, returns error message or null.
+    // Symbolic link is resolved, File it points to is replaced. File with other hard links is written in place,
+    // otherwise the links would keep old content. Backup is made before and rotated in only when File was changed.
+    private static String commitFile(String strTabId, Path pathFileTemp, Path pathFile) {
+
+        Path pathFileReal = getPathFileReal(pathFile);
+        boolean booExists = Files.exists(pathFileReal);
+        boolean booInPlace = booExists && getLinkCount(pathFileReal) > 1;
+        if (booExists && !booInPlace) {
+            copyFileAttributes(strTabId, pathFileReal, pathFileTemp);
+        }
+
+        // Backup written in place is copy, link would be changed together with File.
+        Path pathFilePending = null;
+        if (Settings.BOO_BACKUP_FILES_EABLED) {
+            pathFilePending = FileBackup.backup(strTabId, pathFile, booInPlace);
         }
 
-        boolean booFileBackupOldest = true;
-        Path pathFileBackupOld = null;
-        Path pathFileBackup = null;
-        for (int i = Settings.INT_BACKUP_FILES_MAX - 1; i >= 0; i--) {
-            String strFileNameBackupCount;
-            if (i == 0) {
-                strFileNameBackupCount = "";
+        try {
+            if (booInPlace) {
+                try (OutputStream os = Files.newOutputStream(pathFileReal, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    Files.copy(pathFileTemp, os);
+                }
+                deleteFileTemp(strTabId, pathFileTemp);
             } else {
-                strFileNameBackupCount = "(" + i + ")";
+                try {
+                    Files.move(pathFileTemp, pathFileReal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(pathFileTemp, pathFileReal, StandardCopyOption.REPLACE_EXISTING);
+                }
             }
-            String strFilenameBackup = strFilePathNoExt + strFileNameBackupCount + "." + Settings.STR_BACKUP_FILES_EXT;
-            pathFileBackup = FileSystems.getDefault().getPath(strFilenameBackup);
-            if (Files.exists(pathFileBackup)) {
-                if (booFileBackupOldest) {
-                    try {
-                        Files.deleteIfExists(pathFileBackup);
-                    } catch (Throwable t) {
-                        LOGGER.error("Could not delete oldest *.bak File."
-                                + " TabId=\"" + strTabId + "\""
-                                + " FilePathBak=\"" + pathFileBackup + "\""
-                                + " Throwable=\"" + t.toString() + "\"");
-                        return;
-                    }
+        } catch (Throwable t) {
+            String strMsg = "Could not replace File with saved temporary File."
+                    + " TabId=\"" + strTabId + "\""
+                    + " pathFile=\"" + pathFileReal + "\""
+                    + " pathFileTemp=\"" + pathFileTemp + "\""
+                    + " InPlace=" + booInPlace
+                    + " Throwable=\"" + t.toString() + "\"";
+            LOGGER.error(strMsg);
+            if (pathFilePending != null) {
+                // File written in place could be changed partially, its backup is kept.
+                if (booInPlace) {
+                    FileBackup.commitBackup(strTabId, pathFile, pathFilePending);
                 } else {
-                    try {
-                        Files.move(pathFileBackup, pathFileBackupOld);
-                    } catch (Throwable t) {
-                        LOGGER.error("Could not rename *.bak File."
-                                + " TabId=\"" + strTabId + "\""
-                                + " pathFile=\"" + pathFile + "\""
-                                + " pathFileBackup=\"" + pathFileBackup + "\""
-                                + " pathFileBackupOld=\"" + pathFileBackupOld + "\""
-                                + " Throwable=\"" + t.toString() + "\"");
-                        return;
-                    }
-                    LOGGER.debug("Renamed *.bak File."
-                            + " TabId=\"" + strTabId + "\""
-                            + " pathFile=\"" + pathFile + "\""
-                            + " pathFileBackup=\"" + pathFileBackup + "\""
-                            + " pathFileBackupOld=\"" + pathFileBackupOld + "\"");
+                    FileBackup.discardBackup(strTabId, pathFilePending);
                 }
             }
-            booFileBackupOldest = false;
-            pathFileBackupOld = pathFileBackup;
+            return strMsg;
+        }
+        if (pathFilePending != null) {
+            FileBackup.commitBackup(strTabId, pathFile, pathFilePending);
         }
+        LOGGER.debug("Replaced File with saved temporary File."
+                + " TabId=\"" + strTabId + "\""
+                + " pathFile=\"" + pathFileReal + "\""
+                + " pathFileTemp=\"" + pathFileTemp + "\""
+                + " InPlace=" + booInPlace);
+        return null;
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static int getLinkCount(Path pathFile) {
+
         try {
-            Files.move(pathFile, pathFileBackup);
+            return (Integer) Files.getAttribute(pathFile, "unix:nlink");
         } catch (Throwable t) {
-            LOGGER.error("Could not rename File to *.bak File."
+            // Not supported by file system, File is replaced.
+            return 1;
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Permissions, owner and group or ACL of File are given to temporary File which replaces it.
+    // Owner could be changed only by privileged user, so it's set only when it's different.
+    private static void copyFileAttributes(String strTabId, Path pathFile, Path pathFileTemp) {
+
+        Set<String> setViews = pathFile.getFileSystem().supportedFileAttributeViews();
+        try {
+            if (setViews.contains("posix")) {
+                PosixFileAttributes posixFileAttributes = Files.readAttributes(pathFile, PosixFileAttributes.class);
+                PosixFileAttributeView posixFileAttributeView = Files.getFileAttributeView(pathFileTemp, PosixFileAttributeView.class);
+                posixFileAttributeView.setPermissions(posixFileAttributes.permissions());
+                if (!posixFileAttributes.group().equals(posixFileAttributeView.readAttributes().group())) {
+                    posixFileAttributeView.setGroup(posixFileAttributes.group());
+                }
+                if (!posixFileAttributes.owner().equals(posixFileAttributeView.getOwner())) {
+                    posixFileAttributeView.setOwner(posixFileAttributes.owner());
+                }
+            } else if (setViews.contains("acl")) {
+                AclFileAttributeView aclFileAttributeView = Files.getFileAttributeView(pathFile, AclFileAttributeView.class);
+                AclFileAttributeView aclFileAttributeViewTemp = Files.getFileAttributeView(pathFileTemp, AclFileAttributeView.class);
+                aclFileAttributeViewTemp.setAcl(aclFileAttributeView.getAcl());
+                if (!aclFileAttributeView.getOwner().equals(aclFileAttributeViewTemp.getOwner())) {
+                    aclFileAttributeViewTemp.setOwner(aclFileAttributeView.getOwner());
+                }
+            }
+        } catch (Throwable t) {
+            LOGGER.error("Could not copy File attributes to temporary File."
                     + " TabId=\"" + strTabId + "\""
                     + " pathFile=\"" + pathFile + "\""
-                    + " pathFileBackup=\"" + pathFileBackup + "\""
+                    + " pathFileTemp=\"" + pathFileTemp + "\""
                     + " Throwable=\"" + t.toString() + "\"");
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Called after File was loaded, replays edits not saved before crash when requested.
+    private void startJournal() {
+
+        this.closeJournal();
+        if (!Settings.BOO_EDIT_JOURNAL_ENABLED) {
             return;
         }
-        LOGGER.debug("Renamed *.bak File."
-                + " TabId=\"" + strTabId + "\""
-                + " pathFile=\"" + pathFile + "\""
-                + " pathFileBackup=\"" + pathFileBackup + "\"");
+        List<EditJournal.Edit> lstEdits = new ArrayList<>();
+        int intReplayed = 0;
+        if (this.booJournalReplay) {
+            this.booJournalReplay = false;
+            lstEdits = EditJournal.read(this.strId, this.pathFile);
+            // Edits left by crash are recovered only when user wants them.
+            if (!lstEdits.isEmpty() && !Utils.showMessage(AlertType.CONFIRMATION, "Recover Edits",
+                    "File \"" + this.strFileName + "\" has " + lstEdits.size() + " edits which were not saved.",
+                    "Do you want to recover them?", "Recover", "Discard")) {
+                LOGGER.info("Journal was discarded by user."
+                        + " Id=\"" + this.strId + "\""
+                        + " pathFile=\"" + this.pathFile + "\""
+                        + " Edits=" + lstEdits.size());
+                lstEdits = new ArrayList<>();
+            }
+            try {
+                for (EditJournal.Edit edit : lstEdits) {
+                    TextPos textPosStart = new TextPos(edit.intParaStart(), edit.intOffsetStart(), edit.intOffsetStart(), true);
+                    TextPos textPosEnd = new TextPos(edit.intParaEnd(), edit.intOffsetEnd(), edit.intOffsetEnd(), true);
+                    this.richTextArea.replaceText(textPosStart, textPosEnd, edit.strText());
+                    intReplayed++;
+                }
+            } catch (Throwable t) {
+                LOGGER.error("Could not replay journal."
+                        + " Id=\"" + this.strId + "\""
+                        + " pathFile=\"" + this.pathFile + "\""
+                        + " Edits=" + lstEdits.size()
+                        + " Replayed=" + intReplayed
+                        + " Throwable=\"" + t.toString() + "\"");
+            }
+            if (intReplayed > 0) {
+                this.lblFileState.textProperty().set("Recovered " + intReplayed + " not saved edits of " + lstEdits.size() + ".");
+                LOGGER.info("Replayed journal."
+                        + " Id=\"" + this.strId + "\""
+                        + " pathFile=\"" + this.pathFile + "\""
+                        + " Edits=" + lstEdits.size()
+                        + " Replayed=" + intReplayed);
+            }
+        }
+        // Replayed edits are written to new journal, so partial record at the end of old one is dropped.
+        this.editJournal = EditJournal.open(this.strId, this.pathFile);
+        for (int i = 0; i < intReplayed; i++) {
+            EditJournal.Edit edit = lstEdits.get(i);
+            this.editJournal.add(edit.intParaStart(), edit.intOffsetStart(), edit.intParaEnd(), edit.intOffsetEnd(), edit.strText());
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Saved position could be out of File changed after it.
+    private void restoreCaretPosition() {
+
+        TextPos textPos = TextPos.ZERO;
+        int intParagraph = this.textPosRestore.index();
+        if (intParagraph > 0 || this.textPosRestore.offset() > 0) {
+            int intParagraphCount = this.richTextArea.getParagraphCount();
+            if (intParagraph >= intParagraphCount) {
+                intParagraph = Math.max(0, intParagraphCount - 1);
+            }
+            int intOffset = Math.min(this.textPosRestore.offset(), this.richTextArea.getPlainText(intParagraph).length());
+            textPos = new TextPos(intParagraph, intOffset, intOffset, true);
+        }
+        this.textPosRestore = TextPos.ZERO;
+        this.richTextArea.select(textPos);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Text inserted by model change, it's already in model.
+    private String getTextAdded(TextPos textPosStart, int intLinesAdded, int intCharsAddedTop, int intCharsAddedBottom) {
+
+        int intParagraph = textPosStart.index();
+        int intOffset = textPosStart.offset();
+        String strText = this.richTextArea.getPlainText(intParagraph);
+        if (intLinesAdded == 0) {
+            return strText.substring(intOffset, intOffset + intCharsAddedTop);
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(strText, intOffset, intOffset + intCharsAddedTop);
+        for (int i = 1; i < intLinesAdded; i++) {
+            sb.append('\n').append(this.richTextArea.getPlainText(intParagraph + i));
+        }
+        sb.append('\n').append(this.richTextArea.getPlainText(intParagraph + intLinesAdded), 0, intCharsAddedBottom);
+        return sb.toString();
+    }
+
+    // -------------------------------------------------------------------------------------
+    private LineEndingWriter getLineEndingWriter() {
+
+        return switch (this.enuLineEndType) {
+            case Unix ->
+                LineEndingWriter.of(LineEndingWriter.STR_LF);
+            // Line endings are changed by edits, writer gets a copy.
+            case Keep ->
+                this.lineEndings == null
+                ? LineEndingWriter.of(LineEndingWriter.STR_CR_LF)
+                : LineEndingWriter.of(this.lineEndings.copy());
+            // No line ending in loaded file, new lines are saved with CR LF.
+            default ->
+                LineEndingWriter.of(LineEndingWriter.STR_CR_LF);
+        };
     }
 
     // -------------------------------------------------------------------------------------
@@ -1495,37 +2489,41 @@ class FileContentEditor extends VBox {
 
         if (this.taskFileLoad == null) {
         } else {
-            ReadOnlyObjectProperty<Worker.State> stateProperty = this.taskFileLoad.stateProperty();
+            // Handlers use their own task, events of load replaced by newer one are ignored.
+            final Task<FileLoaded> task = this.taskFileLoad;
+            ReadOnlyObjectProperty<Worker.State> stateProperty = task.stateProperty();
             Worker.State state = stateProperty.getValue();
             String stateName = state.name();
 
             LOGGER.debug("Got Task."
                     + " Id=\"" + this.strId + "\""
-                    + " taskFileLoad=\"" + this.taskFileLoad + "\""
+                    + " taskFileLoad=\"" + task + "\""
                     + " stateProperty=\"" + stateProperty + "\""
                     + " state=\"" + state + "\""
                     + " stateName=\"" + stateName + "\""
             );
 
-            this.taskFileLoad.onScheduledProperty().set(new EventHandler<WorkerStateEvent>() {
+            task.onScheduledProperty().set(new EventHandler<WorkerStateEvent>() {
                 @Override
                 public void handle(WorkerStateEvent event) {
                     EventType<?> eventType = event.getEventType();
-                    progressBar.progressProperty().bind(taskFileLoad.progressProperty());
-                    lblFileState.textProperty().bind(taskFileLoad.messageProperty());
-
-                    richTextArea.getModel().removeListener(stmChangeListenerFileContent);
+                    event.consume();
+                    if (task != taskFileLoad) {
+                        return;
+                    }
+                    progressBar.progressProperty().bind(task.progressProperty());
+                    lblFileState.textProperty().bind(task.messageProperty());
+                    // Loaded text is not an edit, tracking is resumed when load is finished.
+                    booEditTrackingSuspended = true;
 
                     LOGGER.debug("onScheduledProperty."
                             + " Id=\"" + strId + "\""
                             + " eventType=\"" + eventType + "\""
                             + " event=\"" + event + "\"");
-                    event.consume();
-
                 }
             });
 
-            this.taskFileLoad.onRunningProperty().set(new EventHandler<WorkerStateEvent>() {
+            task.onRunningProperty().set(new EventHandler<WorkerStateEvent>() {
                 @Override
                 public void handle(WorkerStateEvent event) {
                     EventType<?> eventType = event.getEventType();
@@ -1538,46 +2536,76 @@ class FileContentEditor extends VBox {
                 }
             });
 
-            this.taskFileLoad.onFailedProperty().set(new EventHandler<WorkerStateEvent>() {
+            task.onFailedProperty().set(new EventHandler<WorkerStateEvent>() {
                 @Override
                 public void handle(WorkerStateEvent event) {
                     EventType<?> eventType = event.getEventType();
+                    event.consume();
+                    if (task != taskFileLoad) {
+                        return;
+                    }
                     String strErrMsg = lblFileState.textProperty().getValue()
                             + "\nFile=" + lblFileName.getText()
                             + "\nTry to Open File with different Charset or Open File Binary.";
+                    progressBar.progressProperty().unbind();
                     lblFileState.textProperty().unbind();
                     lblFileState.textProperty().setValue(strErrMsg);
 
-                    richTextArea.getModel().addListener(stmChangeListenerFileContent);
-
+                    richTextArea.clear();
                     richTextArea.insertText(TextPos.ZERO, strErrMsg, mapStyleAttrFont);
+                    booEditTrackingSuspended = false;
                     booFileModified = false;
                     LOGGER.debug("onFailedProperty."
                             + " Id=\"" + strId + "\""
                             + " eventType=\"" + eventType + "\""
                             + " event=\"" + event + "\""
                             + " ErrMsg=\"" + strErrMsg + "\"");
+                }
+            });
+
+            // Load cancelled without other load started after it (Tab closed or content released), text is kept as it is.
+            task.onCancelledProperty().set(new EventHandler<WorkerStateEvent>() {
+                @Override
+                public void handle(WorkerStateEvent event) {
+                    EventType<?> eventType = event.getEventType();
                     event.consume();
+                    if (task != taskFileLoad) {
+                        return;
+                    }
+                    progressBar.progressProperty().unbind();
+                    progressBar.setProgress(0);
+                    lblFileState.textProperty().unbind();
+                    lblFileState.textProperty().set("File load cancelled.");
+                    booEditTrackingSuspended = false;
+                    LOGGER.debug("onCancelledProperty."
+                            + " Id=\"" + strId + "\""
+                            + " eventType=\"" + eventType + "\""
+                            + " event=\"" + event + "\"");
                 }
             });
 
-            this.taskFileLoad.onSucceededProperty().set(new EventHandler<WorkerStateEvent>() {
+            task.onSucceededProperty().set(new EventHandler<WorkerStateEvent>() {
                 @Override
                 public void handle(WorkerStateEvent event) {
-                    ReadOnlyObjectProperty<Worker.State> stateProperty = taskFileLoad.stateProperty();
+                    ReadOnlyObjectProperty<Worker.State> stateProperty = task.stateProperty();
                     Worker.State state = stateProperty.getValue();
                     String stateName = state.name();
                     EventType<?> eventType = event.getEventType();
-                    String strText;
-                    int intTextLen = 0;
+                    event.consume();
+                    FileLoaded fileLoaded;
                     try {
-                        strText = taskFileLoad.get();
+                        fileLoaded = task.get();
                     } catch (InterruptedException | ExecutionException ex) {
                         LOGGER.error("onSucceededProperty."
                                 + " Id=\"" + strId + "\""
                                 + " Exception=\"" + ex.toString() + "\"");
-                        strText = "";
+                        fileLoaded = null;
+                    }
+                    if (task != taskFileLoad || fileLoaded == null) {
+                        return;
                     }
+                    String strText = fileLoaded.strText;
+                    int intTextLen = 0;
                     // TODO: filter text !!!???
                     int intTextLogLimit = 100;
                     String strTextPart = "";
@@ -1586,6 +2614,20 @@ class FileContentEditor extends VBox {
                         int intTrim = Math.min(intTextLen, intTextLogLimit);
                         strTextPart = strText.substring(0, intTrim) + "\n...";
                     }
+                    if (fileLoaded.booComplete) {
+                        strCharsetName = fileLoaded.strCharsetName;
+                        if (fileLoaded.lineEndings != null) {
+                            lineEndings = fileLoaded.lineEndings;
+                            lineIndex = fileLoaded.lineIndex;
+                            enuLineEndType = fileLoaded.enuLineEndType;
+                            spLineEnding.set(fileLoaded.strLineEnding);
+                        }
+                        decodeErrors = fileLoaded.decodeErrors;
+                        lngFileSizeLoaded = fileLoaded.lngFileSize;
+                        lngFileSizeKnown = fileLoaded.lngFileSize;
+                        lngFileTimeKnown = fileLoaded.lngFileTime;
+                        lngContentHashSaved = fileLoaded.lngContentHash;
+                    }
                     String strLineEnding = spLineEnding.getValue();
                     LOGGER.trace("onSucceededProperty got File content."
                             + " Id=\"" + strId + "\""
@@ -1594,21 +2636,38 @@ class FileContentEditor extends VBox {
                             + " state=\"" + state + "\""
                             + " stateName=\"" + stateName + "\""
                             + " strLineEnding=\"" + strLineEnding + "\""
+                            + " Complete=" + fileLoaded.booComplete
                             + "\nintTextLen=\"" + intTextLen + "\""
                             + "\nstrText=\"" + strTextPart + "\""
                     );
-                    event.consume();
 
+                    // File could be loaded before, old content is replaced.
+                    richTextArea.getModel().removeListener(stmChangeListenerLineHashes);
+                    richTextArea.clear();
                     richTextArea.insertText(TextPos.ZERO, strText, mapStyleAttrFont);
+                    richTextArea.getModel().addListener(stmChangeListenerLineHashes);
+                    setLineHashesLoaded(fileLoaded.lineHashIndex);
                     richTextArea.setWrapText(booTextWrap);
-                    richTextArea.select(TextPos.ZERO);
-
-                    richTextArea.getModel().addListener(stmChangeListenerFileContent);
+                    booEditTrackingSuspended = false;
 
+                    progressBar.progressProperty().unbind();
                     lblFileState.textProperty().unbind();
-                    String strMsg = taskFileLoad.getMessage();
+                    String strMsg = task.getMessage();
+                    if (decodeErrors.getCount() > 0) {
+                        strMsg = strMsg + " Could not decode bytes " + decodeErrors.getCount() + " times,"
+                                + " use Edit menu to go to Next/Previous Decode Error.";
+                    }
                     lblFileState.textProperty().set(strMsg);//.unbind();
                     booFileModified = false;
+                    startJournal();
+                    restoreCaretPosition();
+                    booFileChangedExternally = false;
+                    if (!booClosed) {
+                        FileWatcher.watch(FileContentEditor.this, pathFile);
+                    }
+                    if (booFollow) {
+                        startFollow();
+                    }
                     LOGGER.debug("onSucceededProperty set text to textArea."
                             + " Id=\"" + strId + "\""
                             + " eventType=\"" + eventType + "\""
@@ -1664,6 +2723,10 @@ class FileContentEditor extends VBox {
         return this.strFileExt;
     }
 
+    public boolean isBinary() {
+        return this.booBinary;
+    }
+
     public final String getFileDir() {
         return this.strFileDir;
     }
@@ -1699,19 +2762,36 @@ class FileContentEditor extends VBox {
 
     public void setLineEndingWin() {
 
+        this.enuLineEndType = enuLineEnding.Win;
         this.spLineEnding.setValue(STR_CR_LF_WIN);
     }
 
     public void setLineEndingUnix() {
 
+        this.enuLineEndType = enuLineEnding.Unix;
         this.spLineEnding.setValue(STR_LF_UNIX);
     }
 
+    public void setLineEndingKeep() {
+
+        this.enuLineEndType = enuLineEnding.Keep;
+        if (this.lineEndings != null && this.lineEndings.getLinesOther() > 0) {
+            this.spLineEnding.setValue(STR_CR_LF_MIX);
+        } else {
+            this.spLineEnding.setValue(STR_CR_LF_KEEP);
+        }
+    }
+
     // -------------------------------------------------------------------------------------
     public String getCharsetName() {
         return this.strCharsetName;
     }
 
+    public long getDecodeErrorCount() {
+        return this.decodeErrors.getCount();
+    }
+
+    // -------------------------------------------------------------------------------------
     public void setCharsetName(String strCharsetName) {
         this.strCharsetName = strCharsetName;
     }
@@ -1742,6 +2822,328 @@ class FileContentEditor extends VBox {
         return this.stateEditor;
     }
 
+    // -------------------------------------------------------------------------------------
+    public void setFileModified(boolean booFileModified) {
+        this.booFileModified = booFileModified;
+    }
+
+    // -------------------------------------------------------------------------------------
+    public final String getTabId() {
+        return this.strId;
+    }
+
+    // -------------------------------------------------------------------------------------
+    boolean isFileChangedExternally() {
+        return this.booFileChangedExternally;
+    }
+
+    // -------------------------------------------------------------------------------------
+    public void setAutosaveScheduler(AutosaveScheduler autosaveScheduler) {
+        this.autosaveScheduler = autosaveScheduler;
+    }
+
+    // -------------------------------------------------------------------------------------
+    public void setJournalReplay(boolean booJournalReplay) {
+        this.booJournalReplay = booJournalReplay;
+    }
+
+    // -------------------------------------------------------------------------------------
+    public void setLoadPending(TextPos textPosRestore) {
+        this.booLoadPending = true;
+        this.textPosRestore = textPosRestore;
+    }
+
+    // -------------------------------------------------------------------------------------
+    public boolean isLoadPending() {
+        return this.booLoadPending;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Called when Tab is selected, File is loaded only first time.
+    public String openFilePending() {
+
+        if (!this.booLoadPending) {
+            return null;
+        }
+        this.booLoadPending = false;
+        if (this.booContentReleased) {
+            this.booContentReleased = false;
+            return this.reopenFile();
+        }
+        return this.openFile();
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Approximate heap used by loaded text, Latin-1 Strings of paragraphs and paragraph objects,
+    // and by search results with their highlight styles.
+    long getMemoryEstimate() {
+
+        if (this.booLoadPending || this.booBinary) {
+            return 0;
+        }
+        return this.lngFileSizeLoaded + (long) this.richTextArea.getParagraphCount() * INT_PARAGRAPH_OVERHEAD
+                + (long) this.lstTextPosFound.size() * INT_FOUND_OVERHEAD;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Search results and their highlights are removed when memory is low, search text is kept,
+    // next search finds occurrences again. Returns number of bytes released (estimated).
+    long releaseSearch() {
+
+        if (this.booLoadPending || this.booBinary || this.lstTextPosFound.isEmpty()) {
+            return 0;
+        }
+        long lngReleased = (long) this.lstTextPosFound.size() * INT_FOUND_OVERHEAD;
+        this.selectionClear();
+        this.lstTextPosFound.clear();
+        this.booFoundAllDone = false;
+        LOGGER.info("Released search results."
+                + " Id=\"" + this.strId + "\""
+                + " Released=" + lngReleased);
+        return lngReleased;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Not modified big File is shown in read only Hex view when memory is critical,
+    // Hex view keeps only mapped windows of File, not its text.
+    boolean releaseToBinary(long lngFileSizeMin) {
+
+        if (this.lngFileSizeLoaded < lngFileSizeMin
+                || this.booFileModified || this.booLoadPending || this.booBinary || this.booFollow || this.pathFile == null
+                || (this.taskFileLoad != null && !this.taskFileLoad.isDone())
+                || (this.serviceFileSave != null && this.serviceFileSave.isRunning())) {
+            return false;
+        }
+        this.closeJournal();
+        if (!this.openFileBinary().isEmpty()) {
+            return false;
+        }
+        this.lblFileState.textProperty().set("Memory is low, File was opened Binary, read only, size "
+                + ProgressReporter.formatSize(this.lngFileSizeLoaded) + ".");
+        return true;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Text of not modified File is removed, Tab keeps path, caret and line index, File is loaded when Tab is selected.
+    boolean releaseContent() {
+
+        if (this.booFileModified || this.booLoadPending || this.booBinary || this.booFollow || this.pathFile == null
+                || (this.taskFileLoad != null && !this.taskFileLoad.isDone())
+                || (this.serviceFileSave != null && this.serviceFileSave.isRunning())) {
+            return false;
+        }
+        this.setLoadPending(this.textPosCaretPosition);
+        this.booContentReleased = true;
+        this.closeJournal();
+        this.changeTextUntracked(() -> this.richTextArea.clear());
+        this.lblFileState.textProperty().set("File content was released to save memory, it's loaded again when Tab is selected.");
+        LOGGER.info("Released File content."
+                + " Id=\"" + this.strId + "\""
+                + " FileSize=" + this.lngFileSizeLoaded
+                + " pathFile=\"" + this.pathFile + "\"");
+        return true;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Called on FileWatch thread when File or its directory got event.
+    void checkFileChanged() {
+
+        if (this.isFileChanged()) {
+            Platform.runLater(() -> this.fileChanged());
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private boolean isFileChanged() {
+
+        Path pathFileKnown = this.pathFile;
+        if (pathFileKnown == null || this.lngFileSizeKnown < 0) {
+            return false;
+        }
+        try {
+            return Files.size(pathFileKnown) != this.lngFileSizeKnown
+                    || Files.getLastModifiedTime(pathFileKnown).toMillis() != this.lngFileTimeKnown;
+        } catch (Throwable t) {
+            // File was deleted or renamed, it's saved as new one.
+            return false;
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private void fileChanged() {
+
+        // Followed File is read by FileFollower, File being loaded or saved is checked after that.
+        if (this.booClosed || this.booBinary || this.booFollow || this.booLoadPending
+                || (this.taskFileLoad != null && !this.taskFileLoad.isDone())
+                || (this.serviceFileSave != null && this.serviceFileSave.isRunning())
+                || !this.isFileChanged()) {
+            return;
+        }
+        if (this.booFileModified) {
+            this.booFileChangedExternally = true;
+            this.hboxState.visibleProperty().set(true);
+            this.lblFileState.textProperty().set("File was changed by other program, Save will ask to overwrite it.");
+            LOGGER.info("Modified File was changed by other program."
+                    + " Id=\"" + this.strId + "\""
+                    + " pathFile=\"" + this.pathFile + "\"");
+            return;
+        }
+        this.reloadFile();
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Only paragraphs which differ from changed File are replaced, see FileReload.
+    private void reloadFile() {
+
+        if (this.taskFileReload != null && !this.taskFileReload.isDone()) {
+            this.taskFileReload.cancel();
+        }
+        final Path pathFileReload = this.pathFile;
+        final Charset charset = Charset.forName(this.strCharsetName);
+        final long lngContentHash = this.lngContentHashSaved;
+        final Task<FileReload> task = new Task<>() {
+            @Override
+            protected FileReload call() throws Exception {
+                return FileReload.read(strId, pathFileReload, charset, lngContentHash, getLineHashes(), this::isCancelled);
+            }
+        };
+        task.onSucceededProperty().set(new EventHandler<WorkerStateEvent>() {
+            @Override
+            public void handle(WorkerStateEvent event) {
+                event.consume();
+                FileReload fileReload = task.getValue();
+                if (fileReload == null || task != taskFileReload) {
+                    return;
+                }
+                applyReload(fileReload);
+            }
+        });
+        task.onFailedProperty().set(new EventHandler<WorkerStateEvent>() {
+            @Override
+            public void handle(WorkerStateEvent event) {
+                event.consume();
+                Throwable t = task.getException();
+                LOGGER.error("Could not reload File."
+                        + " Id=\"" + strId + "\""
+                        + " pathFile=\"" + pathFileReload + "\""
+                        + " Throwable=\"" + (t == null ? "" : t.toString()) + "\"");
+            }
+        });
+        this.taskFileReload = task;
+        Thread.ofVirtual().name("FileReload-" + this.strId).start(task);
+    }
+
+    // -------------------------------------------------------------------------------------
+    private void applyReload(FileReload fileReload) {
+
+        if (this.booFileModified || this.booFollow || this.richTextArea.getParagraphCount() != fileReload.intParagraphsOld) {
+            // Text was edited while File was read, changed File is not loaded.
+            this.booFileChangedExternally = this.booFileModified;
+            return;
+        }
+        this.lngFileSizeKnown = fileReload.lngFileSize;
+        this.lngFileTimeKnown = fileReload.lngFileTime;
+        if (fileReload.booContentSame) {
+            LOGGER.debug("Changed File has the same content."
+                    + " Id=\"" + this.strId + "\""
+                    + " pathFile=\"" + this.pathFile + "\"");
+            return;
+        }
+        TextPos textPosStart = new TextPos(fileReload.intParaStart, 0, 0, true);
+        TextPos textPosEnd = (fileReload.intParaEnd < 0) ? this.getDocumentEnd() : new TextPos(fileReload.intParaEnd, 0, 0, true);
+        // Reload is not an edit, it's not journaled and does not make File modified.
+        this.changeTextUntracked(() -> this.richTextArea.replaceText(textPosStart, textPosEnd, fileReload.strTextNew));
+        this.lineEndings = fileReload.lineEndings;
+        this.lineIndex = null;
+        this.decodeErrors = new DecodeErrors();
+        this.lngContentHashSaved = fileReload.lngContentHash;
+        if (this.editJournal != null) {
+            this.editJournal.reset();
+        }
+        int intParagraphsReplaced = ((fileReload.intParaEnd < 0) ? fileReload.intParagraphsOld : fileReload.intParaEnd) - fileReload.intParaStart;
+        this.hboxState.visibleProperty().set(true);
+        this.lblFileState.textProperty().set("File was changed by other program and reloaded, "
+                + intParagraphsReplaced + " lines replaced with " + fileReload.intParagraphsNew + " lines.");
+        LOGGER.info("Reloaded File changed by other program."
+                + " Id=\"" + this.strId + "\""
+                + " ParaStart=" + fileReload.intParaStart
+                + " ParagraphsReplaced=" + intParagraphsReplaced
+                + " ParagraphsNew=" + fileReload.intParagraphsNew
+                + " pathFile=\"" + this.pathFile + "\"");
+    }
+
+    // -------------------------------------------------------------------------------------
+    private void applyLineOperation(LineOperation.enuOperation operation, LineOperation lineOperation) {
+
+        if (this.booBinary || this.booFollow || this.booLoadPending
+                || this.richTextArea.getParagraphCount() != lineOperation.intLinesOld
+                || this.computeContentHash() != lineOperation.lngContentHashOld) {
+            // Text was edited or loaded again while lines were changed, result is not applied.
+            this.lblFileState.textProperty().set("Text was changed meanwhile, lines were not changed.");
+            return;
+        }
+        // Listener is not removed, replacement is an edit, File becomes modified and change is journaled.
+        this.richTextArea.replaceText(TextPos.ZERO, this.getDocumentEnd(), lineOperation.strTextNew);
+        this.richTextArea.select(TextPos.ZERO);
+        this.hboxState.visibleProperty().set(true);
+        this.lblFileState.textProperty().set("Lines changed, " + operation + ", "
+                + lineOperation.intLinesOld + " lines replaced with " + lineOperation.intLinesNew + " lines.");
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Text changed by program is not an edit, it's not journaled and does not make File modified.
+    // Previous state is restored, so it could be called while load keeps tracking suspended.
+    private void changeTextUntracked(Runnable runnableChange) {
+
+        boolean booSuspended = this.booEditTrackingSuspended;
+        this.booEditTrackingSuspended = true;
+        try {
+            runnableChange.run();
+        } finally {
+            this.booEditTrackingSuspended = booSuspended;
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private boolean isSaving() {
+        return this.serviceFileSave != null && this.serviceFileSave.isRunning();
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static long getFileTime(Path pathFile) {
+
+        try {
+            return Files.getLastModifiedTime(pathFile).toMillis();
+        } catch (Throwable t) {
+            return -1;
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private void startFollow() {
+
+        this.stopFollow();
+        this.fileFollower = new FileFollower(this, this.strId, this.pathFile, Charset.forName(this.strCharsetName), this.lngFileSizeLoaded);
+        this.fileFollower.start();
+        this.richTextArea.select(this.getDocumentEnd());
+        this.lblFileState.textProperty().set("Following File, lines added to File are shown at the end.");
+    }
+
+    // -------------------------------------------------------------------------------------
+    private void stopFollow() {
+
+        if (this.fileFollower != null) {
+            this.fileFollower.stop();
+            this.fileFollower = null;
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Position saved with opened Tabs, it's not changed until File is loaded.
+    public TextPos getCaretPosition() {
+        return this.booLoadPending ? this.textPosRestore : this.textPosCaretPosition;
+    }
+
     // -------------------------------------------------------------------------------------
     public void setCaretPos(TextField tfPosCaret) {
         this.tfPosCaret = tfPosCaret;
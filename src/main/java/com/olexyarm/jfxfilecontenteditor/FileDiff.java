@@ -0,0 +1,449 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class FileDiff {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileDiff.class);
+
+    // Lines are compared by hashes, hashes of Tab come from its LineHashIndex,
+    // hashes of File lines are computed, in parallel for big Files.
+    // Lines which are not present on other side could not be common, they are marked changed before diff,
+    // so very different Files do not make diff slow. Remaining lines are compared by linear space Myers diff
+    // (split by middle snake), search of middle snake is limited by cost, when limit is reached
+    // the furthest point is used as split, diff could be not minimal but time stays close to linear.
+    private static final int INT_COST_MAX = 256;
+    private static final int INT_PARALLEL_LINES_MIN = 10000;
+    private static final int INT_CAPACITY_INITIAL = 1024;
+
+    static final int INT_ROW_DELETED = 1;
+    static final int INT_ROW_INSERTED = 2;
+    static final int INT_ROW_CHANGED = 3;
+
+    // Both sides are aligned by rows, empty row is added on other side of deleted or inserted line.
+    String strTextLeft;
+    String strTextRight;
+    int intRows;
+    // Blocks of not equal rows: start row, end row (exclusive), kind.
+    int[] arrBlocks;
+    int intBlocks;
+    int intDeleted;
+    int intInserted;
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    // Hashes could be null, they are computed from lines then.
+    static FileDiff compare(String strId, String[] arrLinesLeft, long[] arrHashesLeft,
+            String[] arrLinesRight, long[] arrHashesRight, BooleanSupplier cancelled) {
+
+        if (arrHashesLeft == null || arrHashesLeft.length != arrLinesLeft.length) {
+            arrHashesLeft = hashLines(arrLinesLeft);
+        }
+        if (arrHashesRight == null || arrHashesRight.length != arrLinesRight.length) {
+            arrHashesRight = hashLines(arrLinesRight);
+        }
+        checkCancelled(cancelled);
+
+        BitSet bitsDeleted = new BitSet(arrLinesLeft.length);
+        BitSet bitsInserted = new BitSet(arrLinesRight.length);
+        diff(arrHashesLeft, arrHashesRight, bitsDeleted, bitsInserted, cancelled);
+
+        FileDiff fileDiff = new FileDiff();
+        fileDiff.align(arrLinesLeft, arrLinesRight, bitsDeleted, bitsInserted);
+        LOGGER.info("Compared Files."
+                + " Id=\"" + strId + "\""
+                + " LinesLeft=" + arrLinesLeft.length
+                + " LinesRight=" + arrLinesRight.length
+                + " Deleted=" + fileDiff.intDeleted
+                + " Inserted=" + fileDiff.intInserted
+                + " Blocks=" + fileDiff.intBlocks);
+        return fileDiff;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Line is split by CR LF, CR or LF the same way as File load does.
+    static String[] readLines(Path pathFile, Charset charset) throws IOException {
+
+        String strText;
+        try (FileChannel fileChannel = FileChannel.open(pathFile, StandardOpenOption.READ)) {
+            long lngFileSize = fileChannel.size();
+            if (lngFileSize > Integer.MAX_VALUE) {
+                throw new IOException("File is too big, size " + lngFileSize);
+            }
+            MappedByteBuffer mbb = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, lngFileSize);
+            CharsetDecoder charsetDecoder = charset.newDecoder();
+            charsetDecoder.onMalformedInput(CodingErrorAction.REPLACE);
+            charsetDecoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+            charsetDecoder.replaceWith(Settings.STR_CHARSET_REPLACE_WITH_DEFAULT);
+            strText = charsetDecoder.decode(mbb).toString();
+        }
+        List<String> lstLines = new ArrayList<>(INT_CAPACITY_INITIAL);
+        int intStart = 0;
+        int intLen = strText.length();
+        for (int i = 0; i <= intLen; i++) {
+            char chr = (i < intLen) ? strText.charAt(i) : '\n';
+            if (chr != '\r' && chr != '\n') {
+                continue;
+            }
+            lstLines.add(strText.substring(intStart, i));
+            if (chr == '\r' && i + 1 < intLen && strText.charAt(i + 1) == '\n') {
+                i++;
+            }
+            intStart = i + 1;
+        }
+        return lstLines.toArray(new String[0]);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private static long[] hashLines(String[] arrLines) {
+
+        long[] arrHashes = new long[arrLines.length];
+        IntStream intStream = IntStream.range(0, arrLines.length);
+        if (arrLines.length >= INT_PARALLEL_LINES_MIN) {
+            intStream = intStream.parallel();
+        }
+        intStream.forEach(i -> arrHashes[i] = ContentHash.update(ContentHash.LNG_HASH_INIT, arrLines[i]));
+        return arrHashes;
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static void checkCancelled(BooleanSupplier cancelled) {
+
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Compare was cancelled.");
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static void diff(long[] arrHashesLeft, long[] arrHashesRight, BitSet bitsDeleted, BitSet bitsInserted,
+            BooleanSupplier cancelled) {
+
+        // Lines without pair on other side are changed, only lines present on both sides are compared.
+        long[] arrSetRight = buildSet(arrHashesRight);
+        long[] arrSetLeft = buildSet(arrHashesLeft);
+        int[] arrIndexLeft = new int[arrHashesLeft.length];
+        int intLeft = 0;
+        for (int i = 0; i < arrHashesLeft.length; i++) {
+            if (containsSet(arrSetRight, arrHashesLeft[i])) {
+                arrIndexLeft[intLeft++] = i;
+            } else {
+                bitsDeleted.set(i);
+            }
+        }
+        int[] arrIndexRight = new int[arrHashesRight.length];
+        int intRight = 0;
+        for (int i = 0; i < arrHashesRight.length; i++) {
+            if (containsSet(arrSetLeft, arrHashesRight[i])) {
+                arrIndexRight[intRight++] = i;
+            } else {
+                bitsInserted.set(i);
+            }
+        }
+        long[] arrLeft = new long[intLeft];
+        for (int i = 0; i < intLeft; i++) {
+            arrLeft[i] = arrHashesLeft[arrIndexLeft[i]];
+        }
+        long[] arrRight = new long[intRight];
+        for (int i = 0; i < intRight; i++) {
+            arrRight[i] = arrHashesRight[arrIndexRight[i]];
+        }
+
+        // Ranges are kept in stack instead of recursion, split could be not balanced.
+        Deque<int[]> stackRanges = new ArrayDeque<>();
+        stackRanges.push(new int[]{0, intLeft, 0, intRight});
+        while (!stackRanges.isEmpty()) {
+            checkCancelled(cancelled);
+            int[] arrRange = stackRanges.pop();
+            int intLeftStart = arrRange[0];
+            int intLeftEnd = arrRange[1];
+            int intRightStart = arrRange[2];
+            int intRightEnd = arrRange[3];
+            while (intLeftStart < intLeftEnd && intRightStart < intRightEnd
+                    && arrLeft[intLeftStart] == arrRight[intRightStart]) {
+                intLeftStart++;
+                intRightStart++;
+            }
+            while (intLeftStart < intLeftEnd && intRightStart < intRightEnd
+                    && arrLeft[intLeftEnd - 1] == arrRight[intRightEnd - 1]) {
+                intLeftEnd--;
+                intRightEnd--;
+            }
+            if (intLeftStart == intLeftEnd || intRightStart == intRightEnd) {
+                markChanged(arrIndexLeft, intLeftStart, intLeftEnd, bitsDeleted);
+                markChanged(arrIndexRight, intRightStart, intRightEnd, bitsInserted);
+                continue;
+            }
+            int[] arrSplit = split(arrLeft, intLeftStart, intLeftEnd, arrRight, intRightStart, intRightEnd);
+            if (arrSplit == null) {
+                markChanged(arrIndexLeft, intLeftStart, intLeftEnd, bitsDeleted);
+                markChanged(arrIndexRight, intRightStart, intRightEnd, bitsInserted);
+                continue;
+            }
+            stackRanges.push(new int[]{arrSplit[0], intLeftEnd, arrSplit[1], intRightEnd});
+            stackRanges.push(new int[]{intLeftStart, arrSplit[0], intRightStart, arrSplit[1]});
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static void markChanged(int[] arrIndex, int intStart, int intEnd, BitSet bits) {
+
+        for (int i = intStart; i < intEnd; i++) {
+            bits.set(arrIndex[i]);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Returns split point inside of ranges, or null when ranges have nothing in common.
+    // Ranges do not start and do not end with equal lines, so split point is never at range start or end.
+    private static int[] split(long[] arrLeft, int intLeftStart, int intLeftEnd,
+            long[] arrRight, int intRightStart, int intRightEnd) {
+
+        int intLenLeft = intLeftEnd - intLeftStart;
+        int intLenRight = intRightEnd - intRightStart;
+        int intDMax = Math.min((intLenLeft + intLenRight + 1) / 2, INT_COST_MAX);
+        int intOffset = intDMax + 1;
+        int intLength = 2 * intOffset + 1;
+        int[] arrForward = new int[intLength];
+        int[] arrBackward = new int[intLength];
+        Arrays.fill(arrForward, -1);
+        Arrays.fill(arrBackward, -1);
+        arrForward[intOffset + 1] = 0;
+        arrBackward[intOffset + 1] = 0;
+        int intDelta = intLenLeft - intLenRight;
+        boolean booFront = (intDelta % 2 != 0);
+        // Diagonals which went out of ranges are not walked again.
+        int intK1Start = 0;
+        int intK1End = 0;
+        int intK2Start = 0;
+        int intK2End = 0;
+        for (int d = 0; d < intDMax; d++) {
+            for (int k1 = -d + intK1Start; k1 <= d - intK1End; k1 += 2) {
+                int intK1Offset = intOffset + k1;
+                int x1;
+                if (k1 == -d || (k1 != d && arrForward[intK1Offset - 1] < arrForward[intK1Offset + 1])) {
+                    x1 = arrForward[intK1Offset + 1];
+                } else {
+                    x1 = arrForward[intK1Offset - 1] + 1;
+                }
+                int y1 = x1 - k1;
+                while (x1 < intLenLeft && y1 < intLenRight
+                        && arrLeft[intLeftStart + x1] == arrRight[intRightStart + y1]) {
+                    x1++;
+                    y1++;
+                }
+                arrForward[intK1Offset] = x1;
+                if (x1 > intLenLeft) {
+                    intK1End += 2;
+                } else if (y1 > intLenRight) {
+                    intK1Start += 2;
+                } else if (booFront) {
+                    int intK2Offset = intOffset + intDelta - k1;
+                    if (intK2Offset >= 0 && intK2Offset < intLength && arrBackward[intK2Offset] != -1) {
+                        int x2 = intLenLeft - arrBackward[intK2Offset];
+                        if (x1 >= x2) {
+                            return new int[]{intLeftStart + x1, intRightStart + y1};
+                        }
+                    }
+                }
+            }
+            for (int k2 = -d + intK2Start; k2 <= d - intK2End; k2 += 2) {
+                int intK2Offset = intOffset + k2;
+                int x2;
+                if (k2 == -d || (k2 != d && arrBackward[intK2Offset - 1] < arrBackward[intK2Offset + 1])) {
+                    x2 = arrBackward[intK2Offset + 1];
+                } else {
+                    x2 = arrBackward[intK2Offset - 1] + 1;
+                }
+                int y2 = x2 - k2;
+                while (x2 < intLenLeft && y2 < intLenRight
+                        && arrLeft[intLeftEnd - 1 - x2] == arrRight[intRightEnd - 1 - y2]) {
+                    x2++;
+                    y2++;
+                }
+                arrBackward[intK2Offset] = x2;
+                if (x2 > intLenLeft) {
+                    intK2End += 2;
+                } else if (y2 > intLenRight) {
+                    intK2Start += 2;
+                } else if (!booFront) {
+                    int intK1Offset = intOffset + intDelta - k2;
+                    if (intK1Offset >= 0 && intK1Offset < intLength && arrForward[intK1Offset] != -1) {
+                        int x1 = arrForward[intK1Offset];
+                        int y1 = intOffset + x1 - intK1Offset;
+                        if (x1 >= intLenLeft - x2) {
+                            return new int[]{intLeftStart + x1, intRightStart + y1};
+                        }
+                    }
+                }
+            }
+        }
+        if (intDMax < INT_COST_MAX) {
+            return null;
+        }
+        // Cost limit is reached, ranges are split at the furthest point of forward search.
+        int intBest = 0;
+        int intBestX = 0;
+        int intBestY = 0;
+        for (int k = -intDMax; k <= intDMax; k++) {
+            int x = arrForward[intOffset + k];
+            int y = x - k;
+            if (x < 0 || y < 0 || x > intLenLeft || y > intLenRight) {
+                continue;
+            }
+            if (x + y > intBest) {
+                intBest = x + y;
+                intBestX = x;
+                intBestY = y;
+            }
+        }
+        if (intBest == 0 || intBest == intLenLeft + intLenRight) {
+            return null;
+        }
+        return new int[]{intLeftStart + intBestX, intRightStart + intBestY};
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Open addressing set of hashes, 0 marks empty slot, hash 0 is stored as 1.
+    private static long[] buildSet(long[] arrHashes) {
+
+        int intCapacity = Integer.highestOneBit(Math.max(arrHashes.length, 1) * 2 + 1) * 2;
+        long[] arrSet = new long[intCapacity];
+        int intMask = intCapacity - 1;
+        for (long lngHash : arrHashes) {
+            long lngKey = (lngHash == 0) ? 1 : lngHash;
+            int intSlot = (int) (lngKey ^ (lngKey >>> 32)) & intMask;
+            while (arrSet[intSlot] != 0 && arrSet[intSlot] != lngKey) {
+                intSlot = (intSlot + 1) & intMask;
+            }
+            arrSet[intSlot] = lngKey;
+        }
+        return arrSet;
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static boolean containsSet(long[] arrSet, long lngHash) {
+
+        long lngKey = (lngHash == 0) ? 1 : lngHash;
+        int intMask = arrSet.length - 1;
+        int intSlot = (int) (lngKey ^ (lngKey >>> 32)) & intMask;
+        while (arrSet[intSlot] != 0) {
+            if (arrSet[intSlot] == lngKey) {
+                return true;
+            }
+            intSlot = (intSlot + 1) & intMask;
+        }
+        return false;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Deleted and inserted lines between the same equal lines are shown as changed rows side by side.
+    private void align(String[] arrLinesLeft, String[] arrLinesRight, BitSet bitsDeleted, BitSet bitsInserted) {
+
+        StringBuilder sbLeft = new StringBuilder();
+        StringBuilder sbRight = new StringBuilder();
+        this.arrBlocks = new int[3 * 16];
+        int intLeft = 0;
+        int intRight = 0;
+        int intRow = 0;
+        while (intLeft < arrLinesLeft.length || intRight < arrLinesRight.length) {
+            if (intLeft < arrLinesLeft.length && intRight < arrLinesRight.length
+                    && !bitsDeleted.get(intLeft) && !bitsInserted.get(intRight)) {
+                this.appendRow(sbLeft, sbRight, intRow++, arrLinesLeft[intLeft++], arrLinesRight[intRight++]);
+                continue;
+            }
+            int intLeftStart = intLeft;
+            while (intLeft < arrLinesLeft.length && (bitsDeleted.get(intLeft) || intRight == arrLinesRight.length)) {
+                intLeft++;
+            }
+            int intRightStart = intRight;
+            while (intRight < arrLinesRight.length && (bitsInserted.get(intRight) || intLeftStart == arrLinesLeft.length)) {
+                intRight++;
+            }
+            int intDeleted = intLeft - intLeftStart;
+            int intInserted = intRight - intRightStart;
+            this.intDeleted += intDeleted;
+            this.intInserted += intInserted;
+            int intChanged = Math.min(intDeleted, intInserted);
+            int intRowStart = intRow;
+            for (int i = 0; i < intChanged; i++) {
+                this.appendRow(sbLeft, sbRight, intRow++, arrLinesLeft[intLeftStart + i], arrLinesRight[intRightStart + i]);
+            }
+            this.addBlock(intRowStart, intRow, INT_ROW_CHANGED);
+            intRowStart = intRow;
+            for (int i = intChanged; i < intDeleted; i++) {
+                this.appendRow(sbLeft, sbRight, intRow++, arrLinesLeft[intLeftStart + i], "");
+            }
+            this.addBlock(intRowStart, intRow, INT_ROW_DELETED);
+            intRowStart = intRow;
+            for (int i = intChanged; i < intInserted; i++) {
+                this.appendRow(sbLeft, sbRight, intRow++, "", arrLinesRight[intRightStart + i]);
+            }
+            this.addBlock(intRowStart, intRow, INT_ROW_INSERTED);
+        }
+        this.intRows = intRow;
+        this.strTextLeft = sbLeft.toString();
+        this.strTextRight = sbRight.toString();
+    }
+
+    // -------------------------------------------------------------------------------------
+    private void appendRow(StringBuilder sbLeft, StringBuilder sbRight, int intRow, String strLeft, String strRight) {
+
+        if (intRow > 0) {
+            sbLeft.append('\n');
+            sbRight.append('\n');
+        }
+        sbLeft.append(strLeft);
+        sbRight.append(strRight);
+    }
+
+    // -------------------------------------------------------------------------------------
+    private void addBlock(int intRowStart, int intRowEnd, int intKind) {
+
+        if (intRowStart == intRowEnd) {
+            return;
+        }
+        if (this.intBlocks * 3 == this.arrBlocks.length) {
+            this.arrBlocks = Arrays.copyOf(this.arrBlocks, this.arrBlocks.length * 2);
+        }
+        int i = this.intBlocks * 3;
+        this.arrBlocks[i] = intRowStart;
+        this.arrBlocks[i + 1] = intRowEnd;
+        this.arrBlocks[i + 2] = intKind;
+        this.intBlocks++;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javafx.application.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class FileFollower {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileFollower.class);
+
+    // Size of followed File is checked periodically, only bytes appended after the last check are mapped and decoded.
+    // Text is added to the editor on FX thread up to the last LF, incomplete line is read when its LF is written.
+    // All followers share one thread, checks are cheap when File does not grow.
+    private static final long LNG_POLL_INTERVAL_MS = 1000;
+    private static final long LNG_CHUNK_SIZE_MAX = 16L * 1024 * 1024;
+    private static final byte BYT_LF = 0x0A;
+    private static final ScheduledThreadPoolExecutor EXECUTOR = new ScheduledThreadPoolExecutor(1, (Runnable r) -> {
+        Thread thread = new Thread(r, "FileFollow");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        EXECUTOR.setRemoveOnCancelPolicy(true);
+    }
+
+    private final FileContentEditor fileEditor;
+    private final String strTabId;
+    private final Path pathFile;
+    private final CharsetDecoder charsetDecoder;
+    // Text appended on FX thread is not finished yet, next check waits for it.
+    private final AtomicBoolean booAppendPending = new AtomicBoolean();
+
+    private volatile long lngOffset;
+    private volatile boolean booStopped;
+    private ScheduledFuture<?> future;
+
+    // -------------------------------------------------------------------------------------
+    // Construstors
+    // -------------------------------------------------------------------------------------
+    FileFollower(FileContentEditor fileEditor, String strTabId, Path pathFile, Charset charset, long lngOffset) {
+
+        this.fileEditor = fileEditor;
+        this.strTabId = strTabId;
+        this.pathFile = pathFile;
+        this.charsetDecoder = charset.newDecoder();
+        this.charsetDecoder.onMalformedInput(CodingErrorAction.REPLACE);
+        this.charsetDecoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.charsetDecoder.replaceWith(Settings.STR_CHARSET_REPLACE_WITH_DEFAULT);
+        this.lngOffset = lngOffset;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    void start() {
+
+        this.future = EXECUTOR.scheduleWithFixedDelay(this::check, LNG_POLL_INTERVAL_MS, LNG_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        LOGGER.info("Started following File."
+                + " TabId=\"" + this.strTabId + "\""
+                + " Offset=" + this.lngOffset
+                + " pathFile=\"" + this.pathFile + "\"");
+    }
+
+    // -------------------------------------------------------------------------------------
+    void stop() {
+
+        this.booStopped = true;
+        if (this.future != null) {
+            this.future.cancel(false);
+        }
+        LOGGER.info("Stopped following File."
+                + " TabId=\"" + this.strTabId + "\""
+                + " Offset=" + this.lngOffset
+                + " pathFile=\"" + this.pathFile + "\"");
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private void check() {
+
+        if (this.booStopped || this.booAppendPending.get()) {
+            return;
+        }
+        long lngFileSize;
+        try {
+            lngFileSize = Files.size(this.pathFile);
+        } catch (Throwable t) {
+            // File could be deleted and created again by log rotation, it's checked next time.
+            LOGGER.debug("Could not get size of followed File."
+                    + " TabId=\"" + this.strTabId + "\""
+                    + " pathFile=\"" + this.pathFile + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+            return;
+        }
+        if (lngFileSize < this.lngOffset) {
+            // File was truncated or replaced, it's loaded again.
+            LOGGER.info("Followed File was truncated."
+                    + " TabId=\"" + this.strTabId + "\""
+                    + " Offset=" + this.lngOffset
+                    + " FileSize=" + lngFileSize
+                    + " pathFile=\"" + this.pathFile + "\"");
+            this.booStopped = true;
+            this.future.cancel(false);
+            Platform.runLater(() -> this.fileEditor.followTruncated(this));
+            return;
+        }
+        if (lngFileSize == this.lngOffset) {
+            return;
+        }
+        long lngSize = Math.min(lngFileSize - this.lngOffset, LNG_CHUNK_SIZE_MAX);
+        String strText;
+        try (FileChannel fileChannel = FileChannel.open(this.pathFile, StandardOpenOption.READ)) {
+            MappedByteBuffer mbb = fileChannel.map(FileChannel.MapMode.READ_ONLY, this.lngOffset, lngSize);
+            int intEnd = (int) lngSize;
+            while (intEnd > 0 && mbb.get(intEnd - 1) != BYT_LF) {
+                intEnd--;
+            }
+            if (intEnd == 0) {
+                if (lngSize < LNG_CHUNK_SIZE_MAX) {
+                    // Line is not complete yet.
+                    return;
+                }
+                // Very long line is added by parts.
+                intEnd = (int) lngSize;
+            }
+            mbb.limit(intEnd);
+            this.charsetDecoder.reset();
+            strText = this.charsetDecoder.decode(mbb).toString();
+            this.lngOffset += intEnd;
+        } catch (Throwable t) {
+            LOGGER.error("Could not read followed File."
+                    + " TabId=\"" + this.strTabId + "\""
+                    + " Offset=" + this.lngOffset
+                    + " FileSize=" + lngFileSize
+                    + " pathFile=\"" + this.pathFile + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+            return;
+        }
+        this.booAppendPending.set(true);
+        Platform.runLater(() -> {
+            this.booAppendPending.set(false);
+            if (!this.booStopped) {
+                this.fileEditor.appendFollowed(strText);
+            }
+        });
+    }
+}
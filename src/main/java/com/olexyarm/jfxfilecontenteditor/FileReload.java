@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class FileReload {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileReload.class);
+
+    // File changed by other program is decoded again and its lines are compared with paragraphs in editor by hashes.
+    // Common lines at the beginning and at the end are kept, only paragraphs between them are replaced,
+    // so appended or locally changed File does not replace whole text, caret and scroll position stay.
+    private static final int INT_CAPACITY_INITIAL = 1024;
+
+    long lngFileSize;
+    long lngFileTime;
+    long lngContentHash;
+    boolean booContentSame;
+    int intParagraphsOld;
+    // Replaced paragraphs intParaStart..intParaEnd (exclusive), intParaEnd is -1 when replaced part ends with text.
+    int intParaStart;
+    int intParaEnd;
+    int intParagraphsNew;
+    String strTextNew;
+    LineEndings lineEndings;
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    // Hashes of paragraphs in editor are taken from its LineHashIndex, text of paragraphs is not read.
+    static FileReload read(String strTabId, Path pathFile, Charset charset, long lngContentHashSaved,
+            long[] arrHashesOld, BooleanSupplier cancelled) throws IOException {
+
+        FileReload fileReload = new FileReload();
+        fileReload.lngFileTime = Files.getLastModifiedTime(pathFile).toMillis();
+        String strText;
+        try (FileChannel fileChannel = FileChannel.open(pathFile, StandardOpenOption.READ)) {
+            fileReload.lngFileSize = fileChannel.size();
+            if (fileReload.lngFileSize > Integer.MAX_VALUE) {
+                throw new IOException("File is too big, size " + fileReload.lngFileSize);
+            }
+            MappedByteBuffer mbb = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileReload.lngFileSize);
+            CharsetDecoder charsetDecoder = charset.newDecoder();
+            charsetDecoder.onMalformedInput(CodingErrorAction.REPLACE);
+            charsetDecoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+            charsetDecoder.replaceWith(Settings.STR_CHARSET_REPLACE_WITH_DEFAULT);
+            strText = charsetDecoder.decode(mbb).toString();
+        }
+        // Lines of new content, line is split by CR LF, CR or LF the same way as File load does.
+        int[] arrStarts = new int[INT_CAPACITY_INITIAL];
+        long[] arrHashesNew = new long[INT_CAPACITY_INITIAL];
+        LineEndings lineEndingsNew = new LineEndings();
+        int intLines = 0;
+        int intStart = 0;
+        int intLen = strText.length();
+        for (int i = 0; i <= intLen; i++) {
+            char chr = (i < intLen) ? strText.charAt(i) : '\n';
+            if (chr != '\r' && chr != '\n') {
+                continue;
+            }
+            if (intLines == arrStarts.length) {
+                arrStarts = Arrays.copyOf(arrStarts, intLines * 2);
+                arrHashesNew = Arrays.copyOf(arrHashesNew, intLines * 2);
+            }
+            arrStarts[intLines] = intStart;
+            arrHashesNew[intLines] = ContentHash.update(ContentHash.LNG_HASH_INIT, strText, intStart, i);
+            intLines++;
+            if (i == intLen) {
+                break;
+            }
+            if (chr == '\r' && i + 1 < intLen && strText.charAt(i + 1) == '\n') {
+                lineEndingsNew.add(true);
+                i++;
+            } else if (chr == '\r') {
+                lineEndingsNew.addCr();
+            } else {
+                lineEndingsNew.add(false);
+            }
+            intStart = i + 1;
+        }
+        lineEndingsNew.finishLoad();
+        if (cancelled.getAsBoolean()) {
+            return null;
+        }
+        int intParagraphsOld = arrHashesOld.length;
+        fileReload.intParagraphsOld = intParagraphsOld;
+        fileReload.lngContentHash = ContentHash.combine(arrHashesNew, intLines);
+        if (fileReload.lngContentHash == lngContentHashSaved) {
+            // Only modification time was changed.
+            fileReload.booContentSame = true;
+            return fileReload;
+        }
+
+        int intMin = Math.min(intParagraphsOld, intLines);
+        int intPrefix = 0;
+        while (intPrefix < intMin && arrHashesOld[intPrefix] == arrHashesNew[intPrefix]) {
+            intPrefix++;
+        }
+        int intSuffix = 0;
+        while (intSuffix < intMin - intPrefix
+                && arrHashesOld[intParagraphsOld - 1 - intSuffix] == arrHashesNew[intLines - 1 - intSuffix]) {
+            intSuffix++;
+        }
+        if (intSuffix == 0 && intPrefix == intMin) {
+            // Replaced part ends with text, it has at least the last paragraph.
+            intPrefix--;
+        }
+        int intEnd = (intSuffix > 0) ? arrStarts[intLines - intSuffix] : intLen;
+        fileReload.intParaStart = intPrefix;
+        fileReload.intParaEnd = (intSuffix > 0) ? intParagraphsOld - intSuffix : -1;
+        fileReload.intParagraphsNew = intLines - intSuffix - intPrefix;
+        fileReload.strTextNew = strText.substring(arrStarts[intPrefix], intEnd);
+        fileReload.lineEndings = lineEndingsNew;
+        LOGGER.debug("Compared reloaded File."
+                + " TabId=\"" + strTabId + "\""
+                + " ParagraphsOld=" + intParagraphsOld
+                + " LinesNew=" + intLines
+                + " Prefix=" + intPrefix
+                + " Suffix=" + intSuffix
+                + " pathFile=\"" + pathFile + "\"");
+        return fileReload;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class FileWatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileWatcher.class);
+
+    // One WatchService and one thread for all Tabs, directory of opened Files is registered once.
+    // Events only start the check, editor compares size and modification time with the ones it loaded or saved.
+    private static final Map<Path, WatchKey> MAP_DIR_KEYS = new ConcurrentHashMap<>();
+    private static final Map<FileContentEditor, Path> MAP_EDITOR_FILES = new ConcurrentHashMap<>();
+    private static WatchService watchService;
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    static synchronized void watch(FileContentEditor fileEditor, Path pathFile) {
+
+        Path pathFileAbs = pathFile.toAbsolutePath().normalize();
+        Path pathDir = pathFileAbs.getParent();
+        if (pathDir == null) {
+            return;
+        }
+        try {
+            if (watchService == null) {
+                watchService = FileSystems.getDefault().newWatchService();
+                Thread.ofPlatform().daemon().name("FileWatch").start(FileWatcher::run);
+            }
+            if (!MAP_DIR_KEYS.containsKey(pathDir)) {
+                WatchKey watchKey = pathDir.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                MAP_DIR_KEYS.put(pathDir, watchKey);
+            }
+        } catch (Throwable t) {
+            LOGGER.error("Could not watch File."
+                    + " pathFile=\"" + pathFile + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+            return;
+        }
+        Path pathFileOld = MAP_EDITOR_FILES.put(fileEditor, pathFileAbs);
+        if (pathFileOld != null && !pathFileOld.getParent().equals(pathDir)) {
+            // File was saved As to other directory.
+            cancelUnused(pathFileOld.getParent());
+        }
+        LOGGER.debug("Watching File."
+                + " pathFile=\"" + pathFileAbs + "\""
+                + " Directories=" + MAP_DIR_KEYS.size()
+                + " Files=" + MAP_EDITOR_FILES.size());
+    }
+
+    // -------------------------------------------------------------------------------------
+    static synchronized void unwatch(FileContentEditor fileEditor) {
+
+        Path pathFile = MAP_EDITOR_FILES.remove(fileEditor);
+        if (pathFile != null) {
+            cancelUnused(pathFile.getParent());
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    static synchronized void shutdown() {
+
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (Throwable t) {
+            LOGGER.error("Could not close WatchService."
+                    + " Throwable=\"" + t.toString() + "\"");
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private static void cancelUnused(Path pathDir) {
+
+        for (Path pathFile : MAP_EDITOR_FILES.values()) {
+            if (pathFile.getParent().equals(pathDir)) {
+                return;
+            }
+        }
+        WatchKey watchKey = MAP_DIR_KEYS.remove(pathDir);
+        if (watchKey != null) {
+            watchKey.cancel();
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static void run() {
+
+        while (true) {
+            WatchKey watchKey;
+            try {
+                watchKey = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                LOGGER.debug("Stopped watching Files.");
+                return;
+            }
+            Path pathDir = (Path) watchKey.watchable();
+            // Events were lost, all Files in directory are checked.
+            boolean booOverflow = false;
+            Set<Path> setChanged = new HashSet<>();
+            for (WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+                if (watchEvent.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    booOverflow = true;
+                } else {
+                    setChanged.add(pathDir.resolve((Path) watchEvent.context()));
+                }
+            }
+            if (!watchKey.reset()) {
+                synchronized (FileWatcher.class) {
+                    MAP_DIR_KEYS.remove(pathDir, watchKey);
+                }
+            }
+            for (Map.Entry<FileContentEditor, Path> entry : MAP_EDITOR_FILES.entrySet()) {
+                Path pathFile = entry.getValue();
+                if (booOverflow ? pathFile.getParent().equals(pathDir) : setChanged.contains(pathFile)) {
+                    entry.getKey().checkFileChanged();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.text.Font;
+import javafx.util.Callback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class HexView extends ListView<Integer> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HexView.class);
+
+    // Read only view of File as rows "offset  16 bytes in hex  ASCII".
+    // List items are row numbers only, ListView creates cells for visible rows,
+    // and row bytes are read from mapped window of File, so memory used does not depend on File size.
+    private static final int INT_BYTES_PER_ROW = 16;
+    private static final long LNG_WINDOW_SIZE = 64L * 1024 * 1024;
+    private static final String STR_FONT_FAMILY = "Monospaced";
+    private static final char[] ARR_HEX = "0123456789ABCDEF".toCharArray();
+
+    private final String strTabId;
+    private final Path pathFile;
+    private final long lngFileSize;
+
+    private MappedByteBuffer mbbWindow;
+    private long lngWindowStart = -1;
+
+    // -------------------------------------------------------------------------------------
+    // Construstors
+    // -------------------------------------------------------------------------------------
+    HexView(String strTabId, Path pathFile, double dblFontSize) throws IOException {
+
+        this.strTabId = strTabId;
+        this.pathFile = pathFile;
+        this.lngFileSize = Files.size(pathFile);
+        long lngRows = (this.lngFileSize + INT_BYTES_PER_ROW - 1) / INT_BYTES_PER_ROW;
+        if (lngRows > Integer.MAX_VALUE) {
+            LOGGER.error("File is too big for Hex view, only beginning of File is shown."
+                    + " TabId=\"" + strTabId + "\""
+                    + " FileSize=" + this.lngFileSize
+                    + " pathFile=\"" + pathFile + "\"");
+            lngRows = Integer.MAX_VALUE;
+        }
+        final int intRows = (int) lngRows;
+
+        this.setItems(new ObservableListBase<Integer>() {
+            @Override
+            public Integer get(int intIndex) {
+                return intIndex;
+            }
+
+            @Override
+            public int size() {
+                return intRows;
+            }
+        });
+
+        Font font = Font.font(STR_FONT_FAMILY, dblFontSize);
+        // Fixed cell size, ListView does not measure rows.
+        this.setFixedCellSize(Math.ceil(dblFontSize * 1.6));
+        this.setCellFactory(new Callback<ListView<Integer>, ListCell<Integer>>() {
+            @Override
+            public ListCell<Integer> call(ListView<Integer> listView) {
+                ListCell<Integer> cell = new ListCell<>() {
+                    @Override
+                    protected void updateItem(Integer intRow, boolean booEmpty) {
+                        super.updateItem(intRow, booEmpty);
+                        if (booEmpty || intRow == null) {
+                            this.setText(null);
+                        } else {
+                            this.setText(formatRow(intRow));
+                        }
+                    }
+                };
+                cell.setFont(font);
+                return cell;
+            }
+        });
+
+        LOGGER.debug("Created Hex view."
+                + " TabId=\"" + strTabId + "\""
+                + " FileSize=" + this.lngFileSize
+                + " Rows=" + intRows
+                + " pathFile=\"" + pathFile + "\"");
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    long getFileSize() {
+        return this.lngFileSize;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private String formatRow(int intRow) {
+
+        long lngOffset = (long) intRow * INT_BYTES_PER_ROW;
+        int intLen = (int) Math.min(INT_BYTES_PER_ROW, this.lngFileSize - lngOffset);
+        StringBuilder sb = new StringBuilder(80);
+        for (int i = 60; i >= 0; i -= 4) {
+            // Offset has 16 hex digits for Files over 4GB only.
+            if (i >= 32 && this.lngFileSize <= 0xFFFFFFFFL) {
+                continue;
+            }
+            sb.append(ARR_HEX[(int) (lngOffset >>> i) & 0xF]);
+        }
+        sb.append("  ");
+        try {
+            MappedByteBuffer mbb = this.getWindow(lngOffset);
+            int intPos = (int) (lngOffset - this.lngWindowStart);
+            StringBuilder sbAscii = new StringBuilder(INT_BYTES_PER_ROW);
+            for (int i = 0; i < INT_BYTES_PER_ROW; i++) {
+                if (i == INT_BYTES_PER_ROW / 2) {
+                    sb.append(' ');
+                }
+                if (i < intLen) {
+                    int b = mbb.get(intPos + i) & 0xFF;
+                    sb.append(ARR_HEX[b >>> 4]).append(ARR_HEX[b & 0xF]).append(' ');
+                    sbAscii.append(b >= 0x20 && b < 0x7F ? (char) b : '.');
+                } else {
+                    sb.append("   ");
+                }
+            }
+            sb.append(' ').append(sbAscii);
+        } catch (Throwable t) {
+            LOGGER.error("Could not read row of Hex view."
+                    + " TabId=\"" + this.strTabId + "\""
+                    + " Row=" + intRow
+                    + " pathFile=\"" + this.pathFile + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+            sb.append("Could not read File: ").append(t.getMessage());
+        }
+        return sb.toString();
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Window is mapped when needed, channel is closed right away, mapping stays valid.
+    private MappedByteBuffer getWindow(long lngOffset) throws IOException {
+
+        long lngStart = lngOffset - lngOffset % LNG_WINDOW_SIZE;
+        if (lngStart != this.lngWindowStart) {
+            long lngSize = Math.min(LNG_WINDOW_SIZE, this.lngFileSize - lngStart);
+            try (FileChannel fileChannel = FileChannel.open(this.pathFile, StandardOpenOption.READ)) {
+                this.mbbWindow = fileChannel.map(FileChannel.MapMode.READ_ONLY, lngStart, lngSize);
+            }
+            this.lngWindowStart = lngStart;
+        }
+        return this.mbbWindow;
+    }
+}
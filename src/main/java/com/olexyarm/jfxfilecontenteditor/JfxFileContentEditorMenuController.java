@@ -27,8 +27,9 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import java.util.Optional;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
 import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
@@ -48,12 +49,14 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
+import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.CustomMenuItem;
 import javafx.scene.control.ListView;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
+import javafx.scene.control.TextInputDialog;
 import javafx.scene.control.TextField;
 import javafx.scene.control.ToolBar;
 import javafx.scene.control.Tooltip;
@@ -68,8 +71,8 @@ import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.Window;
-import javafx.util.Duration;
 import jfx.incubator.scene.control.richtext.RichTextArea;
+import jfx.incubator.scene.control.richtext.TextPos;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -80,6 +83,8 @@ public class JfxFileContentEditorMenuController {
     // -------------------------------------------------------------------------------------
     private JfxFileContentEditorController jfxEditorController;
     private BorderPane borderPaneEditor;
+    // The last pattern used to keep or remove lines is offered again.
+    private String strLinesPattern = "";
 
     // -------------------------------------------------------------------------------------
     @FXML
@@ -100,6 +105,15 @@ public class JfxFileContentEditorMenuController {
     
     @FXML
     private MenuItem miPrint;
+    
+    @FXML
+    private MenuItem miRestoreBackup;
+    
+    @FXML
+    private MenuItem miFollowFile;
+    
+    @FXML
+    private MenuItem miCompareFile;
 
     // -------------------------------------------------------------------------------------
     @FXML
@@ -193,10 +207,13 @@ public class JfxFileContentEditorMenuController {
     private TabPane tabPane;
     private ObservableList<Tab> lstTabs;
     
-    private long lngAutoSaveCount = 0;
-    private Timeline timeline;
+    private AutosaveScheduler autosaveScheduler;
+    private TabEviction tabEviction;
+    // Not modified File bigger than this is switched to Hex view when memory is critical.
+    private static final long LNG_MEMORY_BINARY_FILE_SIZE_MIN = 16L * 1024 * 1024;
     
     private boolean booTextWrap;
+    private boolean booTabsRestoring;
     
     private static int INT_MENU_ITEMS_INIT = -1;
     
@@ -284,13 +301,23 @@ public class JfxFileContentEditorMenuController {
 
                 // -------------------------------------------------------------------------------------
                 String strCharsetName = fileEditor.getCharsetName();
-                updateTextFieldLineCharsetName(strCharsetName);
+                updateTextFieldLineCharsetName(strCharsetName, fileEditor.getDecodeErrorCount());
                 
                 String strLineEnding = fileEditor.getLineEnding();
                 updateTextFieldLineEnding(strLineEnding);
                 
                 boolean booTextWrap = fileEditor.isTextWrap();
                 cbTextWrap.setSelected(booTextWrap);
+
+                if (!booTabsRestoring) {
+                    loadPendingTab(tabTo);
+                }
+                // File of selected Tab is loaded before Files of other Tabs.
+                LoadExecutor.prioritize(strTabToId);
+                if (tabEviction != null) {
+                    tabEviction.used(fileEditor);
+                    tabEviction.evict(fileEditor);
+                }
                 
                 LOGGER.trace("TabPane ChangeListener."
                         + " this=\"" + this + "\""
@@ -339,9 +366,22 @@ public class JfxFileContentEditorMenuController {
                 Tab tab = tabPane.getSelectionModel().getSelectedItem();
                 String strTabId = tab.getId();
                 if (strTabId != null && strTabId.equals(strId)) {
-                    updateTextFieldLineCharsetName(strCharsetName);
+                    FileContentEditor fileEditor = (FileContentEditor) tab.getContent();
+                    updateTextFieldLineCharsetName(strCharsetName, fileEditor.getDecodeErrorCount());
                     updateTextFieldLineEnding(strLineEnding);
                 }
+                // Loaded content could be over memory budget.
+                for (Tab tabLoaded : lstTabs) {
+                    if (strId != null && strId.equals(tabLoaded.getId())) {
+                        tabEviction.loaded((FileContentEditor) tabLoaded.getContent());
+                    }
+                }
+                tabEviction.evict((FileContentEditor) tab.getContent());
+                // Memory threshold notification comes once, pressure is checked again after every load.
+                MemoryMonitor.enuPressure pressure = MemoryMonitor.getPressure(Settings.getMemoryLowPercent());
+                if (pressure != MemoryMonitor.enuPressure.NORMAL) {
+                    memoryLow(pressure);
+                }
                 
                 event.consume();
             }
@@ -388,6 +428,12 @@ public class JfxFileContentEditorMenuController {
         this.addMenuFontFamily();
         this.addMenuCharset();
         this.addFavorites();
+        // Autosave is created before Tabs are restored, edits of every Tab are reported to it.
+        if (Settings.isAutosaveEnabled()) {
+            this.autosaveScheduler = new AutosaveScheduler(Settings.getAutosaveIdle(), Settings.getAutosaveInterval());
+        }
+        this.tabEviction = new TabEviction(Settings.getTabsMemoryMax());
+        MemoryMonitor.start(Settings.getMemoryLowPercent(), this::memoryLow);
         this.restoreOpenedTabs();
         if (Settings.BOO_SHOW_TOOLBAR_EABLED) {
             this.buttonNewFile.setVisible(true);
@@ -400,9 +446,6 @@ public class JfxFileContentEditorMenuController {
             this.buttonSaveFileAll.setVisible(false);
             this.buttonPrint.setVisible(false);
         }
-        if (Settings.isAutosaveEnabled()) {
-            this.startTimeline();
-        }
     }
 
     // -------------------------------------------------------------------------------------
@@ -487,7 +530,7 @@ public class JfxFileContentEditorMenuController {
                             public void handle(ActionEvent event) {
                                 event.consume();
                                 Path pathFile = FileSystems.getDefault().getPath(strLineFinal);
-                                if (!openFileinTab(pathFile)) {
+                                if (!openFileinTab(pathFile, false)) {
                                     return;
                                 }
                                 LOGGER.debug("Opened FilePath from Favorites Menu."
@@ -517,11 +560,40 @@ public class JfxFileContentEditorMenuController {
     private void restoreOpenedTabs() {
         
         List<String> lstOpenedFiles = Utils.openTabsRestore(lstTabs);
-        for (String strFilePath : lstOpenedFiles) {
+        // Tabs are created without loading Files, File is loaded when Tab is selected first time.
+        this.booTabsRestoring = true;
+        Tab tabLast = null;
+        for (String strLine : lstOpenedFiles) {
+            if (strLine.isBlank()) {
+                continue;
+            }
+            // Line is "path" or "path<TAB>paragraph<TAB>offset".
+            String strFilePath = strLine;
+            TextPos textPos = TextPos.ZERO;
+            String[] arrParts = strLine.split(Utils.STR_OPEN_TABS_SEPARATOR);
+            if (arrParts.length == 3) {
+                try {
+                    int intParagraph = Integer.parseInt(arrParts[1]);
+                    int intOffset = Integer.parseInt(arrParts[2]);
+                    strFilePath = arrParts[0];
+                    textPos = new TextPos(intParagraph, intOffset, intOffset, true);
+                } catch (NumberFormatException ex) {
+                    LOGGER.error("Could not parse caret position of restored Tab."
+                            + " strLine=\"" + strLine + "\"");
+                }
+            }
             Path pathFile = Path.of(strFilePath);
-            this.openFileinTab(pathFile);
+            Tab tab = this.openFileinTabPending(pathFile, textPos);
+            if (tab != null) {
+                tabLast = tab;
+            }
+        }
+        this.booTabsRestoring = false;
+        if (tabLast != null) {
+            this.tabPane.getSelectionModel().select(tabLast);
+            this.loadPendingTab(tabLast);
         }
-        if (lstOpenedFiles.isEmpty()) {
+        if (tabLast == null) {
             cbTextWrap.setDisable(true);
             buttonFontIncrease.setDisable(true);
             buttonFontDecrease.setDisable(true);
@@ -529,42 +601,65 @@ public class JfxFileContentEditorMenuController {
     }
 
     // -------------------------------------------------------------------------------------
-    private void startTimeline() {
-        
-        int intAutosaveInterval = Settings.getAutosaveInterval();
-        EventHandler<ActionEvent> timelineEventHandler = new EventHandler<ActionEvent>() {
-            @Override
-            public void handle(ActionEvent e) {
-                lngAutoSaveCount++;
-                long lngTimeCurrent = System.currentTimeMillis();
-                LOGGER.debug("Autosave files EventHandler."
-                        + " lngAutoSaveCount=" + lngAutoSaveCount
-                        + " lngTimeCurrent=" + lngTimeCurrent);
-                if (lstTabs == null || lstTabs.isEmpty()) {
-                    return;
-                }
-                for (Tab tab : lstTabs) {
-                    FileContentEditor fileEditor = (FileContentEditor) tab.getContent();
-                    boolean booFileModified = fileEditor.isFileModified();
-                    if (booFileModified) {
-                        String strFilePath = fileEditor.getFilePath();
-                        saveFileFromTab(tab);
-                        LOGGER.debug("Autosave file."
-                                + " lngAutoSaveCount=" + lngAutoSaveCount
-                                + " lngTimeCurrent=" + lngTimeCurrent
-                                + " strFilePath=\"" + strFilePath + "\"");
-                    }
-                }
-            }
-        };
-        KeyFrame keyFrame = new KeyFrame(Duration.minutes(intAutosaveInterval), timelineEventHandler);
-        timeline = new Timeline(keyFrame);
-        timeline.setCycleCount(Timeline.INDEFINITE);
-        timeline.play();
+    private Tab openFileinTabPending(Path pathFile, TextPos textPos) {
+
+        if (!Utils.checkNewTabsAllowed(this.lstTabs)) {
+            return null;
+        }
+
+        String strErrMsg = Utils.checkFileExist("openFileinTabPending", pathFile);
+        if (strErrMsg != null && !strErrMsg.isBlank()) {
+            Utils.showMessage(AlertType.ERROR, "Opening File", "", "File does not exist:\n" + pathFile, null, null);
+            return null;
+        }
+
+        Tab tab = this.createNewTab(pathFile);
+        if (tab == null) {
+            return null;
+        }
+
+        FileContentEditor fileEditor = (FileContentEditor) tab.getContent();
+        fileEditor.setTabPane(this.tabPane);
+        // Edits not saved before crash or exit are recovered from journal.
+        fileEditor.setJournalReplay(true);
+        fileEditor.setLoadPending(textPos);
+        this.booTextWrap = Settings.BOO_TEXT_WRAP_DEFAULT;
+        fileEditor.setTextWrap(this.booTextWrap);
+
+        this.lstTabs.add(tab);
+        this.changeMenuVisibility(true);
+
+        Settings.INT_FILES_OPENED_TOTAL_COUNT++;
+        String strFileDir = fileEditor.getFileDir();
+        Settings.setLastOpenedDir(strFileDir);
+
+        LOGGER.info("Restored File in Tab, File is not loaded yet."
+                + " FILES_OPEN_COUNT=\"" + Settings.INT_FILES_OPENED_TOTAL_COUNT
+                + " pathFile=\"" + pathFile + "\""
+                + " textPos=\"" + textPos + "\"");
+        return tab;
     }
 
     // -------------------------------------------------------------------------------------
-    private boolean openFileinTab(Path pathFile) {
+    private void loadPendingTab(Tab tab) {
+
+        FileContentEditor fileEditor = (FileContentEditor) tab.getContent();
+        if (!fileEditor.isLoadPending()) {
+            return;
+        }
+        String strErrMsg = fileEditor.openFilePending();
+        if (strErrMsg != null && !strErrMsg.isBlank()) {
+            Utils.showMessage(AlertType.ERROR, "Opening File \"" + fileEditor.getFilePath(), "\"", strErrMsg, null, null);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    private boolean openFileinTab(Path pathFile, boolean booJournalReplay) {
+        return this.openFileinTab(pathFile, booJournalReplay, false);
+    }
+
+    // -------------------------------------------------------------------------------------
+    private boolean openFileinTab(Path pathFile, boolean booJournalReplay, boolean booBinary) {
         
         if (!Utils.checkNewTabsAllowed(this.lstTabs)) {
             return false;
@@ -586,8 +681,9 @@ public class JfxFileContentEditorMenuController {
         
         FileContentEditor fileEditor = (FileContentEditor) tab.getContent();
         fileEditor.setTabPane(this.tabPane);
+        fileEditor.setJournalReplay(booJournalReplay);
         
-        strErrMsg = fileEditor.openFile();
+        strErrMsg = booBinary ? fileEditor.openFileBinary() : fileEditor.openFile();
         if (strErrMsg != null && !strErrMsg.isBlank()) {
             Utils.showMessage(AlertType.ERROR, "Opening File \"" + pathFile, "\"", strErrMsg, null, null);
             return false;
@@ -657,22 +753,82 @@ public class JfxFileContentEditorMenuController {
         
         FileChooser fileChooser = new FileChooser();
         fileChooser.setInitialDirectory(new File(Settings.getLastOpenedDir()));
-        fileChooser.setTitle("Select a file to open");
+        fileChooser.setTitle("Select files to open");
         fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("*.*", "*.*"));
         fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("*.txt", "*.txt"));
         fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("*.log", "*.log"));
         //fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("*.encrypted","*.encrypted"));
 
         Window window = this.borderPaneEditor.getScene().getWindow();
-        File file = fileChooser.showOpenDialog(window);
-        if (file == null) {
+        List<File> lstFiles = fileChooser.showOpenMultipleDialog(window);
+        if (lstFiles == null || lstFiles.isEmpty()) {
             LOGGER.info("Opening File. File is not selected.");
             Utils.showMessage(AlertType.WARNING, "Opening File", "", "File is not selected.", null, null);
             return;
         }
+        List<Path> lstPathFiles = new ArrayList<>();
+        for (File file : lstFiles) {
+            lstPathFiles.add(file.toPath());
+        }
+        this.openFilesinTabs(lstPathFiles);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Tabs are created at once, Files are read to cache in parallel and loaded by LoadExecutor,
+    // the first File is selected, so it's loaded first.
+    private void openFilesinTabs(List<Path> lstPathFiles) {
+        
+        if (lstPathFiles.size() > 1) {
+            LoadExecutor.prefetch(lstPathFiles);
+        }
+        Tab tabFirst = null;
+        int intOpened = 0;
+        for (Path pathFile : lstPathFiles) {
+            if (!Utils.checkNewTabsAllowed(this.lstTabs)) {
+                break;
+            }
+            if (this.openFileinTab(pathFile, false)) {
+                intOpened++;
+                if (tabFirst == null) {
+                    tabFirst = this.tabPane.getSelectionModel().getSelectedItem();
+                }
+            }
+        }
+        if (tabFirst != null && intOpened > 1) {
+            this.tabPane.getSelectionModel().select(tabFirst);
+        }
+        LOGGER.info("Opened Files in Tabs."
+                + " Selected=" + lstPathFiles.size()
+                + " Opened=" + intOpened);
+    }
+
+    // -------------------------------------------------------------------------------------
+    @FXML
+    private void openFileBinary(ActionEvent actionEvent) throws IOException {
+        
+        actionEvent.consume();
+        if (!Utils.checkNewTabsAllowed(this.lstTabs)) {
+            return;
+        }
+        if (LOGGER.isDebugEnabled()) {
+            this.logActionEventId("Open File Binary", actionEvent);
+        }
+        
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setInitialDirectory(new File(Settings.getLastOpenedDir()));
+        fileChooser.setTitle("Select a file to open Binary");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("*.*", "*.*"));
+        
+        Window window = this.borderPaneEditor.getScene().getWindow();
+        File file = fileChooser.showOpenDialog(window);
+        if (file == null) {
+            LOGGER.info("Opening File Binary. File is not selected.");
+            Utils.showMessage(AlertType.WARNING, "Opening File Binary", "", "File is not selected.", null, null);
+            return;
+        }
         Path pathFile = file.toPath();
         
-        this.openFileinTab(pathFile);
+        this.openFileinTab(pathFile, false, true);
     }
 
     // -------------------------------------------------------------------------------------
@@ -852,6 +1008,52 @@ public class JfxFileContentEditorMenuController {
         }
     }
 
+    // -------------------------------------------------------------------------------------
+    @FXML
+    private void restoreBackup(ActionEvent actionEvent) throws IOException {
+        
+        actionEvent.consume();
+        Tab tab = this.tabPane.getSelectionModel().getSelectedItem();
+        if (tab == null) {
+            return;
+        }
+        String strTabId = tab.getId();
+        
+        FileContentEditor fileEditor = (FileContentEditor) tab.getContent();
+        Path pathFile = fileEditor.getPathFile();
+        if (pathFile == null) {
+            return;
+        }
+        List<BackupStore.Entry> lstEntries = BackupStore.list(pathFile);
+        if (lstEntries.isEmpty()) {
+            Utils.showMessage(AlertType.INFORMATION, "Restore Backup", "", "No backups found for File:\n" + pathFile, null, null);
+            return;
+        }
+        // Newest backup first.
+        List<BackupStore.Entry> lstChoices = new ArrayList<>(lstEntries.reversed());
+        ChoiceDialog<BackupStore.Entry> choiceDialog = new ChoiceDialog<>(lstChoices.get(0), lstChoices);
+        choiceDialog.setTitle("Restore Backup");
+        choiceDialog.setHeaderText(fileEditor.getFileName());
+        choiceDialog.setContentText("Backup:");
+        Optional<BackupStore.Entry> optEntry = choiceDialog.showAndWait();
+        if (optEntry.isEmpty()) {
+            return;
+        }
+        BackupStore.Entry entry = optEntry.get();
+        if (fileEditor.isFileModified()) {
+            boolean booRestore = Utils.showMessage(AlertType.CONFIRMATION, "Restore Backup", "File was modified.",
+                    "Changes will be lost, restore backup " + entry + "?", "Restore", "Cancel");
+            if (!booRestore) {
+                return;
+            }
+        }
+        LOGGER.info("Restoring backup."
+                + " TabId=\"" + strTabId + "\""
+                + " pathFile=\"" + pathFile + "\""
+                + " Backup=\"" + entry + "\"");
+        fileEditor.restoreBackup(entry);
+    }
+
     // -------------------------------------------------------------------------------------
     @FXML
     private void find(ActionEvent actionEvent) throws IOException {
@@ -958,6 +1160,231 @@ public class JfxFileContentEditorMenuController {
         }
     }
 
+    // -------------------------------------------------------------------------------------
+    @FXML
+    private void lineEndingKeep(ActionEvent actionEvent) throws IOException {
+        actionEvent.consume();
+        Tab tab = tabPane.getSelectionModel().getSelectedItem();
+        String strTabId = tab.getId();
+        if (strTabId != null) {
+            FileContentEditor fileEditor = (FileContentEditor) tab.getContent();
+            fileEditor.setLineEndingKeep();
+            String strLineEnding = fileEditor.getLineEnding();
+            updateTextFieldLineEnding(strLineEnding);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    @FXML
+    private void decodeErrorNext(ActionEvent actionEvent) throws IOException {
+        actionEvent.consume();
+        this.gotoDecodeError(true);
+    }
+
+    // -------------------------------------------------------------------------------------
+    @FXML
+    private void decodeErrorPrev(ActionEvent actionEvent) throws IOException {
+        actionEvent.consume();
+        this.gotoDecodeError(false);
+    }
+
+    // -------------------------------------------------------------------------------------
+    @FXML
+    private void sortLines(ActionEvent actionEvent) throws IOException {
+        actionEvent.consume();
+        this.changeLines(LineOperation.enuOperation.SORT);
+    }
+
+    // -------------------------------------------------------------------------------------
+    @FXML
+    private void removeDuplicateLines(ActionEvent actionEvent) throws IOException {
+        actionEvent.consume();
+        this.changeLines(LineOperation.enuOperation.UNIQUE);
+    }
+
+    // -------------------------------------------------------------------------------------
+    @FXML
+    private void keepLinesMatching(ActionEvent actionEvent) throws IOException {
+        actionEvent.consume();
+        this.changeLines(LineOperation.enuOperation.KEEP_MATCHING);
+    }
+
+    // -------------------------------------------------------------------------------------
+    @FXML
+    private void removeLinesMatching(ActionEvent actionEvent) throws IOException {
+        actionEvent.consume();
+        this.changeLines(LineOperation.enuOperation.REMOVE_MATCHING);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Following of selected File is started or stopped.
+    @FXML
+    private void followFile(ActionEvent actionEvent) throws IOException {
+        
+        actionEvent.consume();
+        Tab tab = this.tabPane.getSelectionModel().getSelectedItem();
+        if (tab == null) {
+            LOGGER.error("Follow File before any tab created.");
+            return;
+        }
+        FileContentEditor fileEditor = (FileContentEditor) tab.getContent();
+        boolean booFollow = !fileEditor.isFollow();
+        String strErrMsg = fileEditor.followFile(booFollow);
+        String strResult = booFollow ? "Following File." : "Stopped following File.";
+        if (strErrMsg != null && !strErrMsg.isEmpty()) {
+            strResult = strErrMsg;
+        }
+        this.jfxEditorController.jfxEditorBottomController.lblBottomSearchResult.setText(strResult);
+        this.jfxEditorController.jfxEditorBottomController.hboxBottomSearchResult.visibleProperty().set(true);
+        LOGGER.debug("Changed File following."
+                + " TabId=\"" + tab.getId() + "\""
+                + " Follow=" + booFollow
+                + " Result=\"" + strResult + "\"");
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Selected File is compared with other opened Tab, its *.bak File or backup in backup store, result is shown in new window.
+    @FXML
+    private void compareFile(ActionEvent actionEvent) throws IOException {
+        
+        actionEvent.consume();
+        Tab tab = this.tabPane.getSelectionModel().getSelectedItem();
+        if (tab == null) {
+            LOGGER.error("Compare File before any tab created.");
+            return;
+        }
+        String strTabId = tab.getId();
+        FileContentEditor fileEditor = (FileContentEditor) tab.getContent();
+        if (fileEditor.isLoadPending() || fileEditor.isBinary()) {
+            this.jfxEditorController.jfxEditorBottomController.lblBottomSearchResult.setText("Could not compare File which is not loaded as text.");
+            return;
+        }
+        // Choices are other Tabs loaded as text, existing *.bak Files and backups in backup store, the newest first.
+        List<String> lstChoices = new ArrayList<>();
+        List<Object> lstSources = new ArrayList<>();
+        for (Tab tabOther : this.lstTabs) {
+            FileContentEditor fileEditorOther = (FileContentEditor) tabOther.getContent();
+            if (tabOther == tab || fileEditorOther.isLoadPending() || fileEditorOther.isBinary()) {
+                continue;
+            }
+            lstChoices.add("Tab: " + tabOther.getText());
+            lstSources.add(fileEditorOther);
+        }
+        Path pathFile = fileEditor.getPathFile();
+        if (pathFile != null && pathFile.toAbsolutePath().getParent() != null) {
+            Path pathDir = pathFile.toAbsolutePath().getParent();
+            String strFileNameNoExt = FileBackup.getFileNameNoExt(pathFile);
+            String strExt = "." + Settings.STR_BACKUP_FILES_EXT;
+            for (int i = 0; i < Settings.INT_BACKUP_FILES_MAX; i++) {
+                Path pathFileBackup = FileBackup.getPathBackup(pathDir, strFileNameNoExt, strExt, i);
+                if (Files.isRegularFile(pathFileBackup)) {
+                    lstChoices.add("Backup: " + pathFileBackup.getFileName());
+                    lstSources.add(pathFileBackup);
+                }
+            }
+            for (BackupStore.Entry entry : BackupStore.list(pathFile).reversed()) {
+                lstChoices.add("Backup store: " + entry);
+                lstSources.add(entry);
+            }
+        }
+        if (lstChoices.isEmpty()) {
+            Utils.showMessage(AlertType.INFORMATION, "Compare File", "", "No other Tab or backup to compare with.", null, null);
+            return;
+        }
+        ChoiceDialog<String> choiceDialog = new ChoiceDialog<>(lstChoices.get(0), lstChoices);
+        choiceDialog.setTitle("Compare File");
+        choiceDialog.setHeaderText(fileEditor.getFileName());
+        choiceDialog.setContentText("Compare with:");
+        Optional<String> optChoice = choiceDialog.showAndWait();
+        if (optChoice.isEmpty()) {
+            return;
+        }
+        String strChoice = optChoice.get();
+        Object objSource = lstSources.get(lstChoices.indexOf(strChoice));
+        String strNameLeft = tab.getText();
+        String strNameRight = strChoice.substring(strChoice.indexOf(": ") + 2);
+        Charset charset = Charset.forName(fileEditor.getCharsetName());
+        
+        // Tabs stay editable, their lines and hashes are copied here; Files are read and compared on background thread,
+        // UI is not blocked by big Files.
+        final String[] arrLinesLeft = fileEditor.getLines();
+        final long[] arrHashesLeft = fileEditor.getLineHashes();
+        final String[] arrLinesOther;
+        final long[] arrHashesOther;
+        if (objSource instanceof FileContentEditor fileEditorOther) {
+            arrLinesOther = fileEditorOther.getLines();
+            arrHashesOther = fileEditorOther.getLineHashes();
+        } else {
+            arrLinesOther = null;
+            arrHashesOther = null;
+        }
+        Task<FileDiff> taskCompare = new Task<>() {
+            @Override
+            protected FileDiff call() throws Exception {
+                
+                updateMessage("Comparing " + strNameLeft + " with " + strNameRight + ".");
+                String[] arrLinesRight;
+                if (objSource instanceof BackupStore.Entry entry) {
+                    arrLinesRight = readLinesBackupStore(strTabId, pathFile, entry, charset);
+                } else if (objSource instanceof Path pathFileBackup) {
+                    arrLinesRight = FileDiff.readLines(pathFileBackup, charset);
+                } else {
+                    arrLinesRight = arrLinesOther;
+                }
+                return FileDiff.compare(strTabId, arrLinesLeft, arrHashesLeft, arrLinesRight, arrHashesOther, this::isCancelled);
+            }
+        };
+        taskCompare.onSucceededProperty().set(new EventHandler<WorkerStateEvent>() {
+            @Override
+            public void handle(WorkerStateEvent event) {
+                event.consume();
+                FileDiff fileDiff = taskCompare.getValue();
+                jfxEditorController.jfxEditorBottomController.lblBottomSearchResult.setText("Compared " + strNameLeft + " with " + strNameRight + ".");
+                DiffView.show(strNameLeft, strNameRight, fileDiff, fileEditor.getFont());
+            }
+        });
+        taskCompare.onFailedProperty().set(new EventHandler<WorkerStateEvent>() {
+            @Override
+            public void handle(WorkerStateEvent event) {
+                event.consume();
+                String strMsg = "Could not compare " + strNameLeft + " with " + strNameRight + ".";
+                LOGGER.error(strMsg
+                        + " TabId=\"" + strTabId + "\""
+                        + " Throwable=\"" + taskCompare.getException() + "\"");
+                jfxEditorController.jfxEditorBottomController.lblBottomSearchResult.setText(strMsg);
+            }
+        });
+        this.jfxEditorController.jfxEditorBottomController.lblBottomSearchResult.setText("Comparing " + strNameLeft + " with " + strNameRight + ".");
+        this.jfxEditorController.jfxEditorBottomController.hboxBottomSearchResult.visibleProperty().set(true);
+        Thread.ofVirtual().name("FileCompare-" + strTabId).start(taskCompare);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Backup in backup store is compressed, it's restored to temporary File to be read.
+    private static String[] readLinesBackupStore(String strTabId, Path pathFile, BackupStore.Entry entry, Charset charset)
+            throws IOException {
+
+        Path pathFileTemp = Files.createTempFile("JfxCompare", ".tmp");
+        try {
+            String strError = BackupStore.restore(strTabId, pathFile, entry, pathFileTemp);
+            if (strError != null) {
+                throw new IOException(strError);
+            }
+            return FileDiff.readLines(pathFileTemp, charset);
+        } finally {
+            try {
+                Files.deleteIfExists(pathFileTemp);
+            } catch (Throwable t) {
+                // File could be still mapped on Windows.
+                pathFileTemp.toFile().deleteOnExit();
+                LOGGER.debug("Could not delete temporary File."
+                        + " TabId=\"" + strTabId + "\""
+                        + " pathFileTemp=\"" + pathFileTemp + "\""
+                        + " Throwable=\"" + t.toString() + "\"");
+            }
+        }
+    }
+
     // -------------------------------------------------------------------------------------
     @FXML
     private void exit(ActionEvent actionEvent) throws IOException {
@@ -973,6 +1400,7 @@ public class JfxFileContentEditorMenuController {
                 // do not exit app
                 return;
             }
+            Utils.discardJournals(this.lstTabs);
         }
         Platform.exit();
     }
@@ -1034,7 +1462,7 @@ public class JfxFileContentEditorMenuController {
         
         FileContentEditor fileEditor = (FileContentEditor) tab.getContent();
         fileEditor.setCharsetName(strCharset);
-        String strErrMsg = fileEditor.openFile();
+        String strErrMsg = fileEditor.reopenFile();
         if (strErrMsg != null && !strErrMsg.isBlank()) {
             // TODO: add error message on screen
             Utils.showMessage(AlertType.ERROR, "Opening File", "", strErrMsg, null, null);
@@ -1060,7 +1488,7 @@ public class JfxFileContentEditorMenuController {
         String strCharset = this.menuListViewCharsetWrite.getSelectionModel().getSelectedItem();
         FileContentEditor fileEditor = (FileContentEditor) tab.getContent();
         fileEditor.setCharsetName(strCharset);
-        this.updateTextFieldLineCharsetName(strCharset);
+        this.updateTextFieldLineCharsetName(strCharset, fileEditor.getDecodeErrorCount());
         LOGGER.debug("Changed charset for saving file."
                 + " strTabId=\"" + strTabId + "\""
                 + " strCharset=\"" + strCharset + "\"");
@@ -1387,8 +1815,41 @@ public class JfxFileContentEditorMenuController {
     // -------------------------------------------------------------------------------------
     // Methods
     // -------------------------------------------------------------------------------------
-    Timeline getTimeline() {
-        return this.timeline;
+    AutosaveScheduler getAutosaveScheduler() {
+        return this.autosaveScheduler;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Called on FX thread when memory used after GC is over threshold.
+    // Search results are released in all Tabs, content of not selected Tabs which could be loaded again is released,
+    // when memory is critical not modified big Files are switched to read only Hex view.
+    private void memoryLow(MemoryMonitor.enuPressure pressure) {
+
+        if (pressure == MemoryMonitor.enuPressure.NORMAL) {
+            return;
+        }
+        Tab tabSelected = this.tabPane.getSelectionModel().getSelectedItem();
+        FileContentEditor fileEditorSelected = (tabSelected == null) ? null : (FileContentEditor) tabSelected.getContent();
+        long lngReleased = 0;
+        for (Tab tab : this.lstTabs) {
+            lngReleased += ((FileContentEditor) tab.getContent()).releaseSearch();
+        }
+        lngReleased += this.tabEviction.evictAll(fileEditorSelected);
+        int intBinaryCount = 0;
+        if (pressure == MemoryMonitor.enuPressure.CRITICAL) {
+            for (Tab tab : this.lstTabs) {
+                if (((FileContentEditor) tab.getContent()).releaseToBinary(LNG_MEMORY_BINARY_FILE_SIZE_MIN)) {
+                    intBinaryCount++;
+                }
+            }
+        }
+        String strResult = "Memory is low, released " + ProgressReporter.formatSize(lngReleased)
+                + ((intBinaryCount > 0) ? ", " + intBinaryCount + " File(s) opened Binary." : ".");
+        this.jfxEditorController.jfxEditorBottomController.lblBottomSearchResult.setText(strResult);
+        LOGGER.warn("Memory is low."
+                + " Pressure=" + pressure
+                + " Released=" + lngReleased
+                + " BinaryCount=" + intBinaryCount);
     }
 
     // -------------------------------------------------------------------------------------
@@ -1470,6 +1931,12 @@ public class JfxFileContentEditorMenuController {
                     Utils.changeNodeVisibility(node, false);
                     
                 }
+                fileEditor.cancelLoad();
+                fileEditor.setClosed();
+                tabEviction.remove(fileEditor);
+                if (autosaveScheduler != null) {
+                    autosaveScheduler.remove(fileEditor);
+                }
                 boolean booModified = fileEditor.isFileModified();
                 if (!booModified) {
                     return;
@@ -1477,6 +1944,8 @@ public class JfxFileContentEditorMenuController {
                 if (!showMessage(Alert.AlertType.WARNING, "Saving File on Close",
                         "The File was modified and not saved.\nFilePath=" + strFilePath,
                         "Do you want to save file?", "Yes", "No")) {
+                    // Edits are discarded, journal is not needed.
+                    fileEditor.closeJournal();
                     LOGGER.info("Saving modified File while closing Tab was denied."
                             + " TabId=\"" + strTabId + "\""
                             + " FileName=\"" + strFileName + "\""
@@ -1491,12 +1960,18 @@ public class JfxFileContentEditorMenuController {
                         + " FilePath=\"" + strFilePath + "\""
                         + " FileNameExt=\"" + strFileNameExt + "\""
                         + " eventType=\"" + eventType + "\"");
-                fileEditor.saveFile(null);
+                // Journal is deleted when save succeeds, otherwise edits are recovered on next open.
+                if (!fileEditor.saveFile(null)) {
+                    LOGGER.info("File was not saved while closing Tab, journal is kept."
+                            + " TabId=\"" + strTabId + "\""
+                            + " FilePath=\"" + strFilePath + "\"");
+                }
             }
         });
         
         TextField tfCaretPos = jfxEditorController.jfxEditorBottomController.tfBottomCursorPos;
         fileEditor.setCaretPos(tfCaretPos);
+        fileEditor.setAutosaveScheduler(this.autosaveScheduler);
         
         LOGGER.info("Created Tab."
                 + " TabId=\"" + strTabId + "\""
@@ -1536,6 +2011,9 @@ public class JfxFileContentEditorMenuController {
         this.menuEdit.setVisible(booVisible);
         this.menuFont.setVisible(booVisible);
         this.miPrint.setVisible(booVisible);
+        this.miRestoreBackup.setVisible(booVisible && Settings.BOO_BACKUP_STORE_ENABLED);
+        this.miFollowFile.setVisible(booVisible);
+        this.miCompareFile.setVisible(booVisible);
         
         this.cbTextWrap.setDisable(!booVisible);
         this.buttonFontIncrease.setDisable(!booVisible);
@@ -1559,9 +2037,68 @@ public class JfxFileContentEditorMenuController {
     }
 
     // -------------------------------------------------------------------------------------
-    private void updateTextFieldLineCharsetName(String strCharsetName) {
+    private void gotoDecodeError(boolean booNext) {
+        
+        Tab tab = this.tabPane.getSelectionModel().getSelectedItem();
+        if (tab == null) {
+            LOGGER.error("Go to decode error before any tab created.");
+            return;
+        }
+        FileContentEditor fileEditor = (FileContentEditor) tab.getContent();
+        String strResult = fileEditor.gotoDecodeError(booNext);
+        this.jfxEditorController.jfxEditorBottomController.lblBottomSearchResult.setText(strResult);
+        this.jfxEditorController.jfxEditorBottomController.hboxBottomSearchResult.visibleProperty().set(true);
+        LOGGER.debug("Went to decode error."
+                + " TabId=\"" + tab.getId() + "\""
+                + " Next=" + booNext
+                + " Result=\"" + strResult + "\"");
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Lines are changed on background thread, result is shown in File state when it's done.
+    private void changeLines(LineOperation.enuOperation operation) {
+        
+        Tab tab = this.tabPane.getSelectionModel().getSelectedItem();
+        if (tab == null) {
+            LOGGER.error("Change lines before any tab created.");
+            return;
+        }
+        FileContentEditor fileEditor = (FileContentEditor) tab.getContent();
+        String strPattern = null;
+        if (operation == LineOperation.enuOperation.KEEP_MATCHING || operation == LineOperation.enuOperation.REMOVE_MATCHING) {
+            TextInputDialog textInputDialog = new TextInputDialog(this.strLinesPattern);
+            textInputDialog.setTitle((operation == LineOperation.enuOperation.KEEP_MATCHING) ? "Keep Lines Matching" : "Remove Lines Matching");
+            textInputDialog.setHeaderText(fileEditor.getFileName());
+            textInputDialog.setContentText("Regular expression:");
+            Optional<String> optPattern = textInputDialog.showAndWait();
+            if (optPattern.isEmpty()) {
+                return;
+            }
+            strPattern = optPattern.get();
+            this.strLinesPattern = strPattern;
+        }
+        String strErrMsg = fileEditor.transformLines(operation, strPattern);
+        String strResult = "Changing lines.";
+        if (strErrMsg != null && !strErrMsg.isEmpty()) {
+            strResult = strErrMsg;
+        }
+        this.jfxEditorController.jfxEditorBottomController.lblBottomSearchResult.setText(strResult);
+        this.jfxEditorController.jfxEditorBottomController.hboxBottomSearchResult.visibleProperty().set(true);
+        LOGGER.debug("Changing lines."
+                + " TabId=\"" + tab.getId() + "\""
+                + " Operation=" + operation
+                + " Pattern=\"" + strPattern + "\""
+                + " Result=\"" + strResult + "\"");
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Number of bytes which could not be decoded is shown next to charset.
+    private void updateTextFieldLineCharsetName(String strCharsetName, long lngDecodeErrors) {
         
         TextField tfCharset = (TextField) Utils.MAP_NODE_REFS.get(Utils.NODE_NAMES.tfBottomCharset.toString());
+        if (lngDecodeErrors > 0) {
+            strCharsetName = strCharsetName + " (" + lngDecodeErrors + " decode errors)";
+        }
         tfCharset.setText(strCharsetName);
         // TODO: make set width better
         tfCharset.setPrefWidth(tfCharset.getText().length() * 10);
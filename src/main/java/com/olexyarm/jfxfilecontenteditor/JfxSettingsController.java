@@ -63,6 +63,27 @@ public class JfxSettingsController implements Initializable {
     @FXML
     public RadioButton settingsBackupDisable;
 
+    @FXML
+    public RadioButton settingsBackupStoreEnable;
+
+    @FXML
+    public RadioButton settingsBackupStoreDelta;
+
+    @FXML
+    public RadioButton settingsBackupStoreDisable;
+
+    @FXML
+    public RadioButton settingsEditJournalEnable;
+
+    @FXML
+    public RadioButton settingsEditJournalDisable;
+
+    @FXML
+    public RadioButton settingsCharsetDetectEnable;
+
+    @FXML
+    public RadioButton settingsCharsetDetectDisable;
+
     @FXML
     public RadioButton settingsSensitivityYes;
 
@@ -375,6 +396,133 @@ public class JfxSettingsController implements Initializable {
             }
         });
 
+        // -------------------------------------------------------------------------------------
+        // Backup Store Enable/Disable
+        final ToggleGroup grpBackupStore = new ToggleGroup();
+        this.settingsBackupStoreEnable.setToggleGroup(grpBackupStore);
+        this.settingsBackupStoreDelta.setToggleGroup(grpBackupStore);
+        this.settingsBackupStoreDisable.setToggleGroup(grpBackupStore);
+
+        if (Settings.BOO_BACKUP_STORE_ENABLED && Settings.BOO_BACKUP_STORE_DELTA) {
+            this.settingsBackupStoreDelta.setSelected(true);
+            this.settingsBackupStoreDelta.setFocusTraversable(true);
+        } else if (Settings.BOO_BACKUP_STORE_ENABLED) {
+            this.settingsBackupStoreEnable.setSelected(true);
+            this.settingsBackupStoreEnable.setFocusTraversable(true);
+        } else {
+            this.settingsBackupStoreDisable.setSelected(true);
+            this.settingsBackupStoreDisable.setFocusTraversable(true);
+        }
+
+        grpBackupStore.selectedToggleProperty().addListener(new ChangeListener<Toggle>() {
+            @Override
+            public void changed(ObservableValue<? extends Toggle> ov,
+                    Toggle old_toggle, Toggle new_toggle) {
+                if (new_toggle != null) {
+                    RadioButton rb = (RadioButton) new_toggle;
+                    String strID = rb.getId();
+                    if (strID == null) {
+                        LOGGER.error("Could not get RadioButton ID of settings Backup-Store."
+                                + " ov=" + ov
+                                + " old_toggle=" + old_toggle
+                                + " new_toggle=" + new_toggle);
+                    } else if (strID.equalsIgnoreCase("settingsBackupStoreEnable")) {
+                        Settings.BOO_BACKUP_STORE_ENABLED = true;
+                        Settings.BOO_BACKUP_STORE_DELTA = false;
+                        LOGGER.info("Changed settings Backup-Store Enable."
+                                + " ID=" + strID);
+                    } else if (strID.equalsIgnoreCase("settingsBackupStoreDelta")) {
+                        Settings.BOO_BACKUP_STORE_ENABLED = true;
+                        Settings.BOO_BACKUP_STORE_DELTA = true;
+                        LOGGER.info("Changed settings Backup-Store Delta."
+                                + " ID=" + strID);
+                    } else if (strID.equalsIgnoreCase("settingsBackupStoreDisable")) {
+                        Settings.BOO_BACKUP_STORE_ENABLED = false;
+                        LOGGER.info("Changed settings Backup-Store Disable."
+                                + " ID=" + strID);
+                    }
+                }
+            }
+        });
+
+        // -------------------------------------------------------------------------------------
+        // Edit Journal Enable/Disable
+        final ToggleGroup grpEditJournal = new ToggleGroup();
+        this.settingsEditJournalEnable.setToggleGroup(grpEditJournal);
+        this.settingsEditJournalDisable.setToggleGroup(grpEditJournal);
+
+        if (Settings.BOO_EDIT_JOURNAL_ENABLED) {
+            this.settingsEditJournalEnable.setSelected(true);
+            this.settingsEditJournalEnable.setFocusTraversable(true);
+        } else {
+            this.settingsEditJournalDisable.setSelected(true);
+            this.settingsEditJournalDisable.setFocusTraversable(true);
+        }
+
+        grpEditJournal.selectedToggleProperty().addListener(new ChangeListener<Toggle>() {
+            @Override
+            public void changed(ObservableValue<? extends Toggle> ov,
+                    Toggle old_toggle, Toggle new_toggle) {
+                if (new_toggle != null) {
+                    RadioButton rb = (RadioButton) new_toggle;
+                    String strID = rb.getId();
+                    if (strID == null) {
+                        LOGGER.error("Could not get RadioButton ID of settings Edit-Journal."
+                                + " ov=" + ov
+                                + " old_toggle=" + old_toggle
+                                + " new_toggle=" + new_toggle);
+                    } else if (strID.equalsIgnoreCase("settingsEditJournalEnable")) {
+                        Settings.BOO_EDIT_JOURNAL_ENABLED = true;
+                        LOGGER.info("Changed settings Edit-Journal Enable."
+                                + " ID=" + strID);
+                    } else if (strID.equalsIgnoreCase("settingsEditJournalDisable")) {
+                        Settings.BOO_EDIT_JOURNAL_ENABLED = false;
+                        LOGGER.info("Changed settings Edit-Journal Disable."
+                                + " ID=" + strID);
+                    }
+                }
+            }
+        });
+
+        // -------------------------------------------------------------------------------------
+        // Detect Charset
+        final ToggleGroup grpCharsetDetect = new ToggleGroup();
+        this.settingsCharsetDetectEnable.setToggleGroup(grpCharsetDetect);
+        this.settingsCharsetDetectDisable.setToggleGroup(grpCharsetDetect);
+
+        if (Settings.BOO_CHARSET_DETECT_ENABLED) {
+            this.settingsCharsetDetectEnable.setSelected(true);
+            this.settingsCharsetDetectEnable.setFocusTraversable(true);
+        } else {
+            this.settingsCharsetDetectDisable.setSelected(true);
+            this.settingsCharsetDetectDisable.setFocusTraversable(true);
+        }
+
+        grpCharsetDetect.selectedToggleProperty().addListener(new ChangeListener<Toggle>() {
+            @Override
+            public void changed(ObservableValue<? extends Toggle> ov,
+                    Toggle old_toggle, Toggle new_toggle) {
+                if (new_toggle != null) {
+                    RadioButton rb = (RadioButton) new_toggle;
+                    String strID = rb.getId();
+                    if (strID == null) {
+                        LOGGER.error("Could not get RadioButton ID of settings Charset-Detect."
+                                + " ov=" + ov
+                                + " old_toggle=" + old_toggle
+                                + " new_toggle=" + new_toggle);
+                    } else if (strID.equalsIgnoreCase("settingsCharsetDetectEnable")) {
+                        Settings.BOO_CHARSET_DETECT_ENABLED = true;
+                        LOGGER.info("Changed settings Charset-Detect Enable."
+                                + " ID=" + strID);
+                    } else if (strID.equalsIgnoreCase("settingsCharsetDetectDisable")) {
+                        Settings.BOO_CHARSET_DETECT_ENABLED = false;
+                        LOGGER.info("Changed settings Charset-Detect Disable."
+                                + " ID=" + strID);
+                    }
+                }
+            }
+        });
+
         // -------------------------------------------------------------------------------------
         // Tabs Number
         this.settingsTabsNum.setText("" + Settings.INT_TABS_COUNT_MAX);
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.io.IOException;
+import java.io.Writer;
+
+interface LineEndingWriter {
+
+    static final String STR_CR_LF = "\r\n";
+    static final String STR_LF = "\n";
+    static final String STR_CR = "\r";
+
+    // Writes line ending after paragraph intParagraph, it's never called for the last paragraph.
+    void writeLineEnding(Writer writer, int intParagraph) throws IOException;
+
+    // -------------------------------------------------------------------------------------
+    static LineEndingWriter of(String strLineEnding) {
+
+        char[] achrLineEnding = strLineEnding.toCharArray();
+        int intLen = achrLineEnding.length;
+        return (writer, intParagraph) -> writer.write(achrLineEnding, 0, intLen);
+    }
+
+    // -------------------------------------------------------------------------------------
+    static LineEndingWriter of(LineEndings lineEndings) {
+
+        char[] achrCrLf = STR_CR_LF.toCharArray();
+        char[] achrLf = STR_LF.toCharArray();
+        char[] achrCr = STR_CR.toCharArray();
+        return (writer, intParagraph) -> {
+            if (lineEndings.isCrLf(intParagraph)) {
+                writer.write(achrCrLf, 0, 2);
+            } else if (lineEndings.isCr(intParagraph)) {
+                writer.write(achrCr, 0, 1);
+            } else {
+                writer.write(achrLf, 0, 1);
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.util.BitSet;
+
+class LineEndings {
+
+    // Line ending of every line as it was loaded.
+    // Only lines with line ending different from the most used one are marked in the BitSet,
+    // so for files with a few mixed line endings it's small and cheap to shift on edits.
+    // Lines ended with CR without LF (old Mac or corrupted lines) are marked in own BitSet and are never default.
+    private final BitSet bitsOther = new BitSet();
+    private final BitSet bitsCr = new BitSet();
+    private boolean booCrLfDefault;
+    private int intLines;
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    // Used while loading file, before finishLoad() marks line with CR LF.
+    void add(boolean booCrLf) {
+
+        if (booCrLf) {
+            this.bitsOther.set(this.intLines);
+        }
+        this.intLines++;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Used while loading file for line with CR without LF.
+    void addCr() {
+
+        this.bitsCr.set(this.intLines);
+        this.intLines++;
+    }
+
+    // -------------------------------------------------------------------------------------
+    void finishLoad() {
+
+        int intCrLf = this.bitsOther.cardinality();
+        int intLf = this.intLines - intCrLf - this.bitsCr.cardinality();
+        if (intCrLf > intLf) {
+            this.booCrLfDefault = true;
+            this.bitsOther.flip(0, this.intLines);
+            this.bitsOther.andNot(this.bitsCr);
+        } else {
+            this.booCrLfDefault = false;
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    boolean isCrLf(int intLine) {
+
+        if (intLine >= this.intLines) {
+            return this.booCrLfDefault;
+        }
+        if (this.bitsCr.get(intLine)) {
+            return false;
+        }
+        return this.bitsOther.get(intLine) != this.booCrLfDefault;
+    }
+
+    // -------------------------------------------------------------------------------------
+    boolean isCr(int intLine) {
+        return this.bitsCr.get(intLine);
+    }
+
+    // -------------------------------------------------------------------------------------
+    boolean isCrLfDefault() {
+        return this.booCrLfDefault;
+    }
+
+    // -------------------------------------------------------------------------------------
+    int getLinesOther() {
+        return this.bitsOther.cardinality() + this.bitsCr.cardinality();
+    }
+
+    // -------------------------------------------------------------------------------------
+    LineEndings copy() {
+
+        LineEndings lineEndingsCopy = new LineEndings();
+        lineEndingsCopy.bitsOther.or(this.bitsOther);
+        lineEndingsCopy.bitsCr.or(this.bitsCr);
+        lineEndingsCopy.booCrLfDefault = this.booCrLfDefault;
+        lineEndingsCopy.intLines = this.intLines;
+        return lineEndingsCopy;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Paragraphs intParaStart..intParaEnd were replaced with text having intLinesAdded line breaks.
+    // New line breaks get line ending of the line where they were inserted, CR only line gives them default one.
+    void adjust(int intParaStart, int intParaEnd, int intLinesAdded) {
+
+        int intLinesRemoved = intParaEnd - intParaStart;
+        if (intLinesRemoved == 0 && intLinesAdded == 0) {
+            return;
+        }
+        boolean booOtherStart = this.bitsOther.get(intParaStart);
+        this.shift(this.bitsOther, intParaStart, intParaEnd, intLinesAdded);
+        this.shift(this.bitsCr, intParaStart, intParaEnd, intLinesAdded);
+        if (booOtherStart) {
+            this.bitsOther.set(intParaStart, intParaStart + intLinesAdded);
+        }
+        this.intLines = Math.max(0, this.intLines + intLinesAdded - intLinesRemoved);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private void shift(BitSet bits, int intParaStart, int intParaEnd, int intLinesAdded) {
+
+        BitSet bitsTail = bits.get(intParaEnd, Math.max(intParaEnd, this.intLines));
+        bits.clear(intParaStart, Math.max(intParaStart, this.intLines));
+        int intTailStart = intParaStart + intLinesAdded;
+        for (int i = bitsTail.nextSetBit(0); i >= 0; i = bitsTail.nextSetBit(i + 1)) {
+            bits.set(intTailStart + i);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+class LineHashIndex {
+
+    // Hash of every paragraph (ContentHash of its text without line ending), there is always at least one paragraph.
+    // It's built by File load in its read loop, every line is hashed right after it was decoded, and on model changes
+    // only hashes of changed paragraphs are computed again, so compare, reload and autosave use hashes
+    // without reading text of all paragraphs. Model is changed on FX thread, background tasks get a copy.
+    private static final int INT_CAPACITY_INITIAL = 1024;
+
+    private long[] arrHashes;
+    private int intLines;
+    // Hash of the line being appended by File load, and CR was the last appended char (LF after it ends nothing).
+    private long lngHashLineLoad = ContentHash.LNG_HASH_INIT;
+    private boolean booCrLastLoad;
+
+    // -------------------------------------------------------------------------------------
+    // Construstors
+    // -------------------------------------------------------------------------------------
+    // Index of empty text, it has one empty paragraph.
+    LineHashIndex() {
+
+        this.arrHashes = new long[INT_CAPACITY_INITIAL];
+        this.arrHashes[0] = ContentHash.LNG_HASH_INIT;
+        this.intLines = 1;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    // Index is filled by File load with appendLoaded() and finishLoad().
+    static LineHashIndex forLoad() {
+
+        LineHashIndex lineHashIndex = new LineHashIndex();
+        lineHashIndex.intLines = 0;
+        return lineHashIndex;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Text is appended as File load reads it, by lines or by bigger parts. Line is split by CR LF, CR or LF
+    // the same way as FileReload does, CR LF could be split between two parts.
+    void appendLoaded(CharSequence cs) {
+
+        int intStart = 0;
+        int intLen = cs.length();
+        for (int i = 0; i < intLen; i++) {
+            char chr = cs.charAt(i);
+            if (chr == '\n' && this.booCrLastLoad) {
+                // LF of CR LF, line was added at CR.
+                this.booCrLastLoad = false;
+                intStart = i + 1;
+                continue;
+            }
+            this.booCrLastLoad = false;
+            if (chr != '\r' && chr != '\n') {
+                continue;
+            }
+            this.add(ContentHash.update(this.lngHashLineLoad, cs, intStart, i));
+            this.lngHashLineLoad = ContentHash.LNG_HASH_INIT;
+            this.booCrLastLoad = (chr == '\r');
+            intStart = i + 1;
+        }
+        this.lngHashLineLoad = ContentHash.update(this.lngHashLineLoad, cs, intStart, intLen);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // The last line, text after the last line ending (empty when File ends with line ending), is added.
+    LineHashIndex finishLoad() {
+
+        this.add(this.lngHashLineLoad);
+        this.lngHashLineLoad = ContentHash.LNG_HASH_INIT;
+        this.booCrLastLoad = false;
+        return this;
+    }
+
+    // -------------------------------------------------------------------------------------
+    static LineHashIndex of(int intParagraphCount, IntFunction<String> funcParagraph) {
+
+        LineHashIndex lineHashIndex = new LineHashIndex();
+        lineHashIndex.intLines = 0;
+        for (int i = 0; i < intParagraphCount; i++) {
+            lineHashIndex.add(ContentHash.update(ContentHash.LNG_HASH_INIT, funcParagraph.apply(i)));
+        }
+        return lineHashIndex;
+    }
+
+    // -------------------------------------------------------------------------------------
+    synchronized int getLines() {
+        return this.intLines;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Copy of hashes, or null when index is not in sync with model of intParagraphCount paragraphs.
+    synchronized long[] toArray(int intParagraphCount) {
+
+        if (this.intLines != intParagraphCount) {
+            return null;
+        }
+        return Arrays.copyOf(this.arrHashes, this.intLines);
+    }
+
+    // -------------------------------------------------------------------------------------
+    synchronized long getContentHash() {
+        return ContentHash.combine(this.arrHashes, this.intLines);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Paragraphs intParaStart..intParaEnd (inclusive) were replaced with text having intLinesAdded line breaks,
+    // hashes of new paragraphs intParaStart..intParaStart+intLinesAdded are computed from model.
+    // Returns false when change does not match index, index should be built again.
+    synchronized boolean adjust(int intParaStart, int intParaEnd, int intLinesAdded, IntFunction<String> funcParagraph) {
+
+        if (intParaStart < 0 || intParaEnd < intParaStart || intParaEnd >= this.intLines) {
+            return false;
+        }
+        int intLinesNew = this.intLines - (intParaEnd - intParaStart) + intLinesAdded;
+        if (intLinesNew > this.arrHashes.length) {
+            this.arrHashes = Arrays.copyOf(this.arrHashes, Math.max(intLinesNew, this.arrHashes.length * 2));
+        }
+        System.arraycopy(this.arrHashes, intParaEnd + 1, this.arrHashes, intParaStart + intLinesAdded + 1,
+                this.intLines - intParaEnd - 1);
+        this.intLines = intLinesNew;
+        for (int i = intParaStart; i <= intParaStart + intLinesAdded; i++) {
+            this.arrHashes[i] = ContentHash.update(ContentHash.LNG_HASH_INIT, funcParagraph.apply(i));
+        }
+        return true;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private void add(long lngHash) {
+
+        if (this.intLines == this.arrHashes.length) {
+            this.arrHashes = Arrays.copyOf(this.arrHashes, this.intLines * 2);
+        }
+        this.arrHashes[this.intLines++] = lngHash;
+    }
+}
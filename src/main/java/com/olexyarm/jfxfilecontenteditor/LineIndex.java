@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+class LineIndex {
+
+    // Byte offsets of line ends (after EOL) found while loading file,
+    // File is loaded again with other charset without searching for EOLs.
+    // Index is valid while File has the same size and modification time.
+    private static final int INT_CAPACITY_INITIAL = 1024;
+
+    private int[] arrLineEnds = new int[INT_CAPACITY_INITIAL];
+    private int intLines;
+    private long lngFileSize = -1;
+    private long lngFileTime;
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    void add(int intLineEnd) {
+
+        if (this.intLines == this.arrLineEnds.length) {
+            this.arrLineEnds = Arrays.copyOf(this.arrLineEnds, this.intLines * 2);
+        }
+        this.arrLineEnds[this.intLines++] = intLineEnd;
+    }
+
+    // -------------------------------------------------------------------------------------
+    void finishLoad(Path pathFile, long lngFileSize) {
+
+        this.lngFileSize = lngFileSize;
+        try {
+            this.lngFileTime = Files.getLastModifiedTime(pathFile).toMillis();
+        } catch (Throwable t) {
+            this.lngFileSize = -1;
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    boolean isValid(Path pathFile) {
+
+        if (this.lngFileSize < 0) {
+            return false;
+        }
+        try {
+            return Files.size(pathFile) == this.lngFileSize
+                    && Files.getLastModifiedTime(pathFile).toMillis() == this.lngFileTime;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    int getLines() {
+        return this.intLines;
+    }
+
+    // -------------------------------------------------------------------------------------
+    int getLineEnd(int intLine) {
+        return this.arrLineEnds[intLine];
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class LineOperation {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LineOperation.class);
+
+    // Lines are changed on background thread over copy of paragraphs, editor replaces whole text with the result
+    // as one edit. Big documents are sorted and filtered in parallel, duplicates are found by LineHashIndex
+    // hashes, text of lines is compared only when hashes are equal.
+    private static final int INT_PARALLEL_LINES_MIN = 10000;
+
+    enum enuOperation {
+        SORT,
+        UNIQUE,
+        KEEP_MATCHING,
+        REMOVE_MATCHING
+    }
+
+    String strTextNew;
+    int intLinesOld;
+    int intLinesNew;
+    // Hash of content the operation was done on, text edited meanwhile is not replaced.
+    long lngContentHashOld;
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    static LineOperation apply(String strId, enuOperation operation, String[] arrLines, long[] arrHashes,
+            Pattern pattern, BooleanSupplier cancelled) {
+
+        long lngTimeStart = System.currentTimeMillis();
+        String[] arrLinesNew;
+        switch (operation) {
+            case SORT:
+                arrLinesNew = arrLines.clone();
+                if (arrLinesNew.length >= INT_PARALLEL_LINES_MIN) {
+                    Arrays.parallelSort(arrLinesNew);
+                } else {
+                    Arrays.sort(arrLinesNew);
+                }
+                break;
+            case UNIQUE:
+                arrLinesNew = unique(arrLines, arrHashes, cancelled);
+                break;
+            case KEEP_MATCHING:
+            case REMOVE_MATCHING:
+                boolean booKeep = (operation == enuOperation.KEEP_MATCHING);
+                IntStream intStream = IntStream.range(0, arrLines.length);
+                if (arrLines.length >= INT_PARALLEL_LINES_MIN) {
+                    intStream = intStream.parallel();
+                }
+                arrLinesNew = intStream
+                        .filter(i -> pattern.matcher(arrLines[i]).find() == booKeep)
+                        .mapToObj(i -> arrLines[i])
+                        .toArray(String[]::new);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown line operation " + operation);
+        }
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Line operation was cancelled.");
+        }
+        LineOperation lineOperation = new LineOperation();
+        lineOperation.intLinesOld = arrLines.length;
+        lineOperation.intLinesNew = arrLinesNew.length;
+        lineOperation.lngContentHashOld = ContentHash.combine(arrHashes, arrHashes.length);
+        lineOperation.strTextNew = String.join("\n", arrLinesNew);
+        LOGGER.info("Changed lines."
+                + " Id=\"" + strId + "\""
+                + " Operation=" + operation
+                + " LinesOld=" + lineOperation.intLinesOld
+                + " LinesNew=" + lineOperation.intLinesNew
+                + " TimeTaken=" + (System.currentTimeMillis() - lngTimeStart) + " ms");
+        return lineOperation;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    // The first occurrence of every line is kept. Open addressing table keeps index of line + 1, 0 marks empty slot.
+    private static String[] unique(String[] arrLines, long[] arrHashes, BooleanSupplier cancelled) {
+
+        int intCapacity = Integer.highestOneBit(Math.max(arrLines.length, 1) * 2 + 1) * 2;
+        int intMask = intCapacity - 1;
+        int[] arrTable = new int[intCapacity];
+        String[] arrLinesNew = new String[arrLines.length];
+        int intLinesNew = 0;
+        for (int i = 0; i < arrLines.length; i++) {
+            if ((i & 0xFFFF) == 0 && cancelled.getAsBoolean()) {
+                throw new CancellationException("Line operation was cancelled.");
+            }
+            long lngHash = arrHashes[i];
+            int intSlot = (int) (lngHash ^ (lngHash >>> 32)) & intMask;
+            boolean booDuplicate = false;
+            while (arrTable[intSlot] != 0) {
+                int intLine = arrTable[intSlot] - 1;
+                if (arrHashes[intLine] == lngHash && arrLines[intLine].equals(arrLines[i])) {
+                    booDuplicate = true;
+                    break;
+                }
+                intSlot = (intSlot + 1) & intMask;
+            }
+            if (!booDuplicate) {
+                arrTable[intSlot] = i + 1;
+                arrLinesNew[intLinesNew++] = arrLines[i];
+            }
+        }
+        return Arrays.copyOf(arrLinesNew, intLinesNew);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class LoadExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadExecutor.class);
+
+    // Files are loaded by a few threads only, other loads wait in queue.
+    // Load of selected Tab is moved to the head of the queue. Threads are virtual, loading is mostly waiting for I/O.
+    private static final AtomicLong LNG_SEQUENCE = new AtomicLong();
+    private static final Map<String, Load> MAP_LOADS_QUEUED = new ConcurrentHashMap<>();
+    private static final PriorityBlockingQueue<Runnable> QUEUE = new PriorityBlockingQueue<>();
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+            Settings.getFilesLoadThreads(), Settings.getFilesLoadThreads(), 0, TimeUnit.SECONDS, QUEUE,
+            Thread.ofVirtual().name("FileLoad-", 1).factory());
+    // Files opened together are read to OS cache in parallel while their loads wait in queue,
+    // so queued load reads File from memory. Only the beginning of very big File is read.
+    private static final int INT_PREFETCH_PARALLEL = 8;
+    private static final long LNG_PREFETCH_SIZE_MAX = 256L * 1024 * 1024;
+    private static final Semaphore SEMAPHORE_PREFETCH = new Semaphore(INT_PREFETCH_PARALLEL);
+
+    private static class Load implements Runnable, Comparable<Load> {
+
+        private final String strTabId;
+        private final Runnable runnable;
+        private final long lngSequence;
+        // Higher priority is loaded first, Tab selected later has higher priority.
+        private final long lngPriority;
+
+        private Load(String strTabId, Runnable runnable, long lngPriority) {
+
+            this.strTabId = strTabId;
+            this.runnable = runnable;
+            this.lngSequence = LNG_SEQUENCE.incrementAndGet();
+            this.lngPriority = lngPriority;
+        }
+
+        @Override
+        public void run() {
+
+            MAP_LOADS_QUEUED.remove(this.strTabId, this);
+            this.runnable.run();
+        }
+
+        @Override
+        public int compareTo(Load load) {
+
+            if (this.lngPriority != load.lngPriority) {
+                return Long.compare(load.lngPriority, this.lngPriority);
+            }
+            return Long.compare(this.lngSequence, load.lngSequence);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    static void submit(String strTabId, Runnable runnable) {
+
+        Load load = new Load(strTabId, runnable, 0);
+        Load loadOld = MAP_LOADS_QUEUED.put(strTabId, load);
+        if (loadOld != null) {
+            QUEUE.remove(loadOld);
+        }
+        EXECUTOR.execute(load);
+        LOGGER.debug("Submitted File load."
+                + " TabId=\"" + strTabId + "\""
+                + " Queued=" + QUEUE.size()
+                + " Active=" + EXECUTOR.getActiveCount());
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Tab was selected, its File is loaded next if it's still waiting.
+    static void prioritize(String strTabId) {
+
+        Load load = MAP_LOADS_QUEUED.get(strTabId);
+        if (load == null || !QUEUE.remove(load)) {
+            return;
+        }
+        Load loadPrioritized = new Load(strTabId, load.runnable, LNG_SEQUENCE.incrementAndGet());
+        if (MAP_LOADS_QUEUED.replace(strTabId, load, loadPrioritized)) {
+            QUEUE.add(loadPrioritized);
+        }
+        LOGGER.debug("Prioritized File load."
+                + " TabId=\"" + strTabId + "\""
+                + " Queued=" + QUEUE.size());
+    }
+
+    // -------------------------------------------------------------------------------------
+    static void prefetch(List<Path> lstPathFiles) {
+
+        for (Path pathFile : lstPathFiles) {
+            Thread.ofVirtual().name("FilePrefetch").start(() -> prefetchFile(pathFile));
+        }
+        LOGGER.debug("Started Files prefetch."
+                + " Files=" + lstPathFiles.size());
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Load was cancelled, it's not needed to wait in queue.
+    static void remove(String strTabId) {
+
+        Load load = MAP_LOADS_QUEUED.remove(strTabId);
+        if (load != null) {
+            QUEUE.remove(load);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    static void shutdown() {
+
+        EXECUTOR.shutdownNow();
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private static void prefetchFile(Path pathFile) {
+
+        try {
+            SEMAPHORE_PREFETCH.acquire();
+        } catch (InterruptedException e) {
+            return;
+        }
+        try (FileChannel fileChannel = FileChannel.open(pathFile, StandardOpenOption.READ)) {
+            long lngSize = Math.min(fileChannel.size(), LNG_PREFETCH_SIZE_MAX);
+            if (lngSize > 0) {
+                fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, lngSize).load();
+            }
+            LOGGER.debug("Prefetched File."
+                    + " Size=" + lngSize
+                    + " pathFile=\"" + pathFile + "\"");
+        } catch (Throwable t) {
+            // File is read by load anyway.
+            LOGGER.debug("Could not prefetch File."
+                    + " pathFile=\"" + pathFile + "\""
+                    + " Throwable=\"" + t.toString() + "\"");
+        } finally {
+            SEMAPHORE_PREFETCH.release();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javafx.application.Platform;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class MemoryMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryMonitor.class);
+
+    // Heap pools which support usage threshold after GC (old generation) get threshold from Settings,
+    // JVM notifies when memory still used after GC is over it. Usage right after GC is not garbage,
+    // so it shows memory really kept by Tabs, notification is handled on FX thread.
+    // Pressure is critical when used memory after GC is close to heap max.
+    private static final int INT_CRITICAL_PERCENT = 90;
+
+    enum enuPressure {
+        NORMAL,
+        LOW,
+        CRITICAL
+    }
+
+    private static final List<MemoryPoolMXBean> LST_POOLS = new ArrayList<>();
+    private static final AtomicBoolean BOO_PENDING = new AtomicBoolean();
+    private static NotificationListener notificationListener;
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    static synchronized void start(int intThresholdPercent, Consumer<enuPressure> consumerPressure) {
+
+        if (notificationListener != null) {
+            return;
+        }
+        try {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported()) {
+                    continue;
+                }
+                long lngMax = pool.getUsage().getMax();
+                if (lngMax <= 0) {
+                    continue;
+                }
+                pool.setCollectionUsageThreshold(lngMax * intThresholdPercent / 100);
+                LST_POOLS.add(pool);
+                LOGGER.info("Monitoring memory pool."
+                        + " Pool=\"" + pool.getName() + "\""
+                        + " Max=" + lngMax
+                        + " ThresholdPercent=" + intThresholdPercent);
+            }
+            if (LST_POOLS.isEmpty()) {
+                LOGGER.info("Could not monitor memory, there is no heap pool with collection usage threshold.");
+                return;
+            }
+            notificationListener = (notification, handback) -> {
+                if (!MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+                    return;
+                }
+                // Several pools could notify after the same GC, pressure is handled once.
+                if (BOO_PENDING.compareAndSet(false, true)) {
+                    Platform.runLater(() -> {
+                        BOO_PENDING.set(false);
+                        consumerPressure.accept(getPressure(intThresholdPercent));
+                    });
+                }
+            };
+            ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(notificationListener, null, null);
+        } catch (Throwable t) {
+            LOGGER.error("Could not start memory monitor."
+                    + " Throwable=\"" + t.toString() + "\"");
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    static synchronized void stop() {
+
+        if (notificationListener == null) {
+            return;
+        }
+        try {
+            ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(notificationListener);
+        } catch (Throwable t) {
+            LOGGER.error("Could not stop memory monitor."
+                    + " Throwable=\"" + t.toString() + "\"");
+        }
+        notificationListener = null;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Notification comes once when threshold is crossed, pressure is checked again after every File load.
+    static enuPressure getPressure(int intThresholdPercent) {
+
+        enuPressure pressure = enuPressure.NORMAL;
+        for (MemoryPoolMXBean pool : LST_POOLS) {
+            MemoryUsage memoryUsage = pool.getCollectionUsage();
+            if (memoryUsage == null || memoryUsage.getMax() <= 0) {
+                continue;
+            }
+            long lngPercent = memoryUsage.getUsed() * 100 / memoryUsage.getMax();
+            if (lngPercent >= INT_CRITICAL_PERCENT) {
+                return enuPressure.CRITICAL;
+            }
+            if (lngPercent >= intThresholdPercent) {
+                pressure = enuPressure.LOW;
+            }
+        }
+        return pressure;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class ProgressReporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProgressReporter.class);
+
+    // Progress is reported at most once per interval, time is checked at most once per bytes step.
+    static final long LNG_UPDATE_INTERVAL_MS = 250;
+    private static final long LNG_UPDATE_BYTES_STEP = 64 * 1024;
+    private static final double DBL_BYTES_IN_MB = 1024.0 * 1024.0;
+
+    interface Sink {
+
+        void report(long lngDone, long lngTotal, String strMessage);
+    }
+
+    private final String strId;
+    private final String strAction;
+    private final long lngTotal;
+    private final Sink sink;
+    private final long lngTimeStart;
+
+    private long lngBytesNextCheck;
+    private long lngTimeNextUpdate;
+
+    // -------------------------------------------------------------------------------------
+    // Construstors
+    // -------------------------------------------------------------------------------------
+    ProgressReporter(String strId, String strAction, long lngTotal, Sink sink) {
+
+        this.strId = strId;
+        this.strAction = strAction;
+        this.lngTotal = lngTotal;
+        this.sink = sink;
+        this.lngTimeStart = System.nanoTime();
+        this.lngBytesNextCheck = LNG_UPDATE_BYTES_STEP;
+        this.lngTimeNextUpdate = this.lngTimeStart + LNG_UPDATE_INTERVAL_MS * 1_000_000L;
+        this.sink.report(0, lngTotal, strAction + " started.");
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    // lngDone is in the same units as lngTotal (bytes for load, paragraphs for save),
+    // lngBytes is the number of bytes processed so far and drives the throttling.
+    // Returns true when progress was reported, callers could check cancellation then.
+    boolean update(long lngDone, long lngBytes) {
+
+        if (lngBytes < this.lngBytesNextCheck) {
+            return false;
+        }
+        this.lngBytesNextCheck = lngBytes + LNG_UPDATE_BYTES_STEP;
+        long lngTimeNow = System.nanoTime();
+        if (lngTimeNow < this.lngTimeNextUpdate) {
+            return false;
+        }
+        this.lngTimeNextUpdate = lngTimeNow + LNG_UPDATE_INTERVAL_MS * 1_000_000L;
+
+        long lngTimeTakenNs = lngTimeNow - this.lngTimeStart;
+        double dblMbPerSec = getMbPerSec(lngBytes, lngTimeTakenNs);
+        String strEta;
+        if (lngDone <= 0 || lngDone >= this.lngTotal) {
+            strEta = "";
+        } else {
+            long lngEtaSec = (long) ((double) lngTimeTakenNs * (this.lngTotal - lngDone) / lngDone / 1_000_000_000L);
+            strEta = " ETA " + formatSeconds(lngEtaSec);
+        }
+        int intPercent = this.lngTotal <= 0 ? 100 : (int) (lngDone * 100 / this.lngTotal);
+        String strMsg = this.strAction
+                + " " + intPercent + "%"
+                + " " + formatSize(lngBytes)
+                + String.format(Locale.ROOT, " %.1f MB/s", dblMbPerSec)
+                + strEta;
+        this.sink.report(lngDone, this.lngTotal, strMsg);
+        LOGGER.trace("Progress."
+                + " Id=\"" + this.strId + "\""
+                + " Done=" + lngDone
+                + " Total=" + this.lngTotal
+                + " Bytes=" + lngBytes
+                + " Message=\"" + strMsg + "\"");
+        return true;
+    }
+
+    // -------------------------------------------------------------------------------------
+    String finish(String strActionDone, long lngDone, long lngBytes) {
+
+        long lngTimeTakenNs = System.nanoTime() - this.lngTimeStart;
+        String strMsg = strActionDone
+                + " (" + formatSize(lngBytes)
+                + ", " + String.format(Locale.ROOT, "%.1f sec", lngTimeTakenNs / 1_000_000_000.0)
+                + String.format(Locale.ROOT, ", %.1f MB/s", getMbPerSec(lngBytes, lngTimeTakenNs))
+                + ").";
+        this.sink.report(lngDone, this.lngTotal, strMsg);
+        LOGGER.debug("Progress finished."
+                + " Id=\"" + this.strId + "\""
+                + " Done=" + lngDone
+                + " Total=" + this.lngTotal
+                + " Bytes=" + lngBytes
+                + " TimeTaken=" + lngTimeTakenNs / 1_000_000L + " ms"
+                + " Message=\"" + strMsg + "\"");
+        return strMsg;
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private static double getMbPerSec(long lngBytes, long lngTimeTakenNs) {
+
+        if (lngTimeTakenNs <= 0) {
+            return 0;
+        }
+        return lngBytes / DBL_BYTES_IN_MB / (lngTimeTakenNs / 1_000_000_000.0);
+    }
+
+    // -------------------------------------------------------------------------------------
+    static String formatSize(long lngBytes) {
+
+        if (lngBytes < 1024) {
+            return lngBytes + "B";
+        }
+        if (lngBytes < 1024 * 1024) {
+            return (lngBytes / 1024) + "KB";
+        }
+        if (lngBytes < 1024L * 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1fMB", lngBytes / DBL_BYTES_IN_MB);
+        }
+        return String.format(Locale.ROOT, "%.2fGB", lngBytes / DBL_BYTES_IN_MB / 1024);
+    }
+
+    // -------------------------------------------------------------------------------------
+    private static String formatSeconds(long lngSec) {
+
+        if (lngSec < 60) {
+            return lngSec + " sec";
+        }
+        return (lngSec / 60) + " min " + (lngSec % 60) + " sec";
+    }
+}
@@ -263,6 +263,35 @@ class Settings {
     private static final int INT_AUTO_SAVE_FILES_INTERVAL_DEFAULT = 60; // minutes
     private static int INT_AUTO_SAVE_FILES_INTERVAL = 5; // minutes
 
+    // Autosave starts after File was not edited for idle seconds, interval above is the longest delay.
+    private static final String STR_PROP_NAME_AUTO_SAVE_FILES_IDLE = "Auto_BakupFiles_idle";
+    private static final int INT_AUTO_SAVE_FILES_IDLE_MAX = 600; // seconds
+    private static final int INT_AUTO_SAVE_FILES_IDLE_DEFAULT = 10; // seconds
+    private static int INT_AUTO_SAVE_FILES_IDLE = 10; // seconds
+
+    // -------------------------------------------------------------------------------------
+    private static final String STR_PROP_NAME_FILES_LOAD_THREADS = "Files_load_threads";
+    private static final int INT_FILES_LOAD_THREADS_MAX = 16;
+    private static final int INT_FILES_LOAD_THREADS_DEFAULT = 2;
+    private static int INT_FILES_LOAD_THREADS = 2;
+
+    // -------------------------------------------------------------------------------------
+    private static final String STR_PROP_NAME_FOLLOW_LINES_MAX = "Follow_lines_max";
+    private static final int INT_FOLLOW_LINES_MAX_MAX = 10_000_000;
+    private static final int INT_FOLLOW_LINES_MAX_DEFAULT = 100_000;
+    private static int INT_FOLLOW_LINES_MAX = 100_000;
+
+    // -------------------------------------------------------------------------------------
+    private static final String STR_PROP_NAME_TABS_MEMORY_MAX = "Tabs_memory_max_MB";
+    private static final int INT_TABS_MEMORY_MAX_MAX = 65536;
+    private static final int INT_TABS_MEMORY_MAX_DEFAULT = 1024;
+    private static int INT_TABS_MEMORY_MAX = 1024;
+
+    private static final String STR_PROP_NAME_MEMORY_LOW_PERCENT = "Memory_low_percent";
+    private static final int INT_MEMORY_LOW_PERCENT_MAX = 89;
+    private static final int INT_MEMORY_LOW_PERCENT_DEFAULT = 75;
+    private static int INT_MEMORY_LOW_PERCENT = 75;
+
     // -------------------------------------------------------------------------------------
     private static final String STR_PROP_NAME_BACKUP_FILES_ENABLED = "BakupFiles_enabled";
     private static final boolean BOO_BACKUP_FILES_EABLED_DEFAULT = true;
@@ -276,9 +305,30 @@ class Settings {
     private static final int INT_BACKUP_FILES_MAX_MAX = 500;
     public static int INT_BACKUP_FILES_MAX = 3;
 
+    // Backups are compressed and kept in backup store instead of *.bak files.
+    private static final String STR_PROP_NAME_BACKUP_STORE_ENABLED = "BackupFiles_store_enabled";
+    private static final boolean BOO_BACKUP_STORE_ENABLED_DEFAULT = false;
+    public static boolean BOO_BACKUP_STORE_ENABLED;
+
+    // Previous backups in backup store are kept as delta against newer one.
+    private static final String STR_PROP_NAME_BACKUP_STORE_DELTA = "BackupFiles_store_delta";
+    private static final boolean BOO_BACKUP_STORE_DELTA_DEFAULT = false;
+    public static boolean BOO_BACKUP_STORE_DELTA;
+
+    // -------------------------------------------------------------------------------------
+    // Not saved edits are written to journal and recovered when Tabs are restored.
+    private static final String STR_PROP_NAME_EDIT_JOURNAL_ENABLED = "EditJournal_enabled";
+    private static final boolean BOO_EDIT_JOURNAL_ENABLED_DEFAULT = true;
+    public static boolean BOO_EDIT_JOURNAL_ENABLED = true;
+
+    // -------------------------------------------------------------------------------------
+    private static final String STR_PROP_NAME_CHARSET_DETECT_ENABLED = "Charset_detect_enabled";
+    private static final boolean BOO_CHARSET_DETECT_ENABLED_DEFAULT = true;
+    public static boolean BOO_CHARSET_DETECT_ENABLED = true;
+
     // -------------------------------------------------------------------------------------
     private static final String STR_PROP_NAME_TABS_MAX = "Tabs_max";
-    private static final int INT_TABS_COUNT_MAX_MAX = 50;
+    private static final int INT_TABS_COUNT_MAX_MAX = 500;
     private static final int INT_TABS_COUNT_MAX_DEFAULT = 3;
     public static int INT_TABS_COUNT_MAX;
 
@@ -393,10 +443,19 @@ class Settings {
 
             BOO_AUTO_SAVE_FILES_EABLED = getPropValueBoolean(STR_PROP_NAME_AUTO_SAVE_FILES_ENABLED, BOO_AUTO_SAVE_FILES_EABLED_DEFAULT ? "Y" : "N");
             INT_AUTO_SAVE_FILES_INTERVAL = getPropValueInt(STR_PROP_NAME_AUTO_SAVE_FILES_INTERVAL, "" + INT_AUTO_SAVE_FILES_INTERVAL_DEFAULT, INT_AUTO_SAVE_FILES_INTERVAL_MAX);
+            INT_AUTO_SAVE_FILES_IDLE = getPropValueInt(STR_PROP_NAME_AUTO_SAVE_FILES_IDLE, "" + INT_AUTO_SAVE_FILES_IDLE_DEFAULT, INT_AUTO_SAVE_FILES_IDLE_MAX);
+            INT_FILES_LOAD_THREADS = getPropValueInt(STR_PROP_NAME_FILES_LOAD_THREADS, "" + INT_FILES_LOAD_THREADS_DEFAULT, INT_FILES_LOAD_THREADS_MAX);
+            INT_FOLLOW_LINES_MAX = getPropValueInt(STR_PROP_NAME_FOLLOW_LINES_MAX, "" + INT_FOLLOW_LINES_MAX_DEFAULT, INT_FOLLOW_LINES_MAX_MAX);
+            INT_TABS_MEMORY_MAX = getPropValueInt(STR_PROP_NAME_TABS_MEMORY_MAX, "" + INT_TABS_MEMORY_MAX_DEFAULT, INT_TABS_MEMORY_MAX_MAX);
+            INT_MEMORY_LOW_PERCENT = getPropValueInt(STR_PROP_NAME_MEMORY_LOW_PERCENT, "" + INT_MEMORY_LOW_PERCENT_DEFAULT, INT_MEMORY_LOW_PERCENT_MAX);
 
             BOO_BACKUP_FILES_EABLED = getPropValueBoolean(STR_PROP_NAME_BACKUP_FILES_ENABLED, BOO_BACKUP_FILES_EABLED_DEFAULT ? "Y" : "N");
             BOO_BACKUP_FILES_DAILY_ONLY = getPropValueBoolean(STR_PROP_NAME_BACKUP_FILES_DAILY_ONLY, BOO_BACKUP_FILES_DAILY_ONLY_DEFAULT ? "Y" : "N");
             INT_BACKUP_FILES_MAX = getPropValueInt(STR_PROP_NAME_BACKUP_FILES_MAX, "" + INT_BACKUP_FILES_MAX, INT_BACKUP_FILES_MAX_MAX);
+            BOO_BACKUP_STORE_ENABLED = getPropValueBoolean(STR_PROP_NAME_BACKUP_STORE_ENABLED, BOO_BACKUP_STORE_ENABLED_DEFAULT ? "Y" : "N");
+            BOO_BACKUP_STORE_DELTA = getPropValueBoolean(STR_PROP_NAME_BACKUP_STORE_DELTA, BOO_BACKUP_STORE_DELTA_DEFAULT ? "Y" : "N");
+            BOO_EDIT_JOURNAL_ENABLED = getPropValueBoolean(STR_PROP_NAME_EDIT_JOURNAL_ENABLED, BOO_EDIT_JOURNAL_ENABLED_DEFAULT ? "Y" : "N");
+            BOO_CHARSET_DETECT_ENABLED = getPropValueBoolean(STR_PROP_NAME_CHARSET_DETECT_ENABLED, BOO_CHARSET_DETECT_ENABLED_DEFAULT ? "Y" : "N");
 
             DOUBLE_FONT_SIZE_CURRENT = getPropValueDouble(STR_PROP_NAME_FONT_SIZE_CURRENT, "" + DOUBLE_FONT_SIZE_OS_DEFAULT, DOUBLE_FONT_SIZE_MAX);
 
@@ -464,6 +523,11 @@ class Settings {
 
         prop.setProperty(STR_PROP_NAME_AUTO_SAVE_FILES_ENABLED, BOO_AUTO_SAVE_FILES_EABLED ? "Y" : "N");
         prop.setProperty(STR_PROP_NAME_AUTO_SAVE_FILES_INTERVAL, "" + INT_AUTO_SAVE_FILES_INTERVAL);
+        prop.setProperty(STR_PROP_NAME_AUTO_SAVE_FILES_IDLE, "" + INT_AUTO_SAVE_FILES_IDLE);
+        prop.setProperty(STR_PROP_NAME_FILES_LOAD_THREADS, "" + INT_FILES_LOAD_THREADS);
+        prop.setProperty(STR_PROP_NAME_FOLLOW_LINES_MAX, "" + INT_FOLLOW_LINES_MAX);
+        prop.setProperty(STR_PROP_NAME_TABS_MEMORY_MAX, "" + INT_TABS_MEMORY_MAX);
+        prop.setProperty(STR_PROP_NAME_MEMORY_LOW_PERCENT, "" + INT_MEMORY_LOW_PERCENT);
 
         prop.setProperty(STR_PROP_NAME_BACKUP_FILES_EXT, STR_BACKUP_FILES_EXT);
         prop.setProperty(STR_PROP_NAME_BACKUP_FILES_ENABLED, BOO_BACKUP_FILES_EABLED ? "Y" : "N");
@@ -475,6 +539,10 @@ class Settings {
             INT_BACKUP_FILES_MAX = INT_BACKUP_FILES_MAX_MAX;
         }
         prop.setProperty(STR_PROP_NAME_BACKUP_FILES_MAX, "" + INT_BACKUP_FILES_MAX);
+        prop.setProperty(STR_PROP_NAME_BACKUP_STORE_ENABLED, BOO_BACKUP_STORE_ENABLED ? "Y" : "N");
+        prop.setProperty(STR_PROP_NAME_BACKUP_STORE_DELTA, BOO_BACKUP_STORE_DELTA ? "Y" : "N");
+        prop.setProperty(STR_PROP_NAME_EDIT_JOURNAL_ENABLED, BOO_EDIT_JOURNAL_ENABLED ? "Y" : "N");
+        prop.setProperty(STR_PROP_NAME_CHARSET_DETECT_ENABLED, BOO_CHARSET_DETECT_ENABLED ? "Y" : "N");
 
         if (INT_TABS_COUNT_MAX <= 0) {
             INT_TABS_COUNT_MAX = 1;
@@ -643,6 +711,31 @@ class Settings {
         INT_AUTO_SAVE_FILES_INTERVAL = intInterval;
     }
 
+    // -------------------------------------------------------------------------------------
+    public static int getAutosaveIdle() {
+        return INT_AUTO_SAVE_FILES_IDLE;
+    }
+
+    // -------------------------------------------------------------------------------------
+    public static int getFilesLoadThreads() {
+        return INT_FILES_LOAD_THREADS;
+    }
+
+    // -------------------------------------------------------------------------------------
+    public static int getFollowLinesMax() {
+        return INT_FOLLOW_LINES_MAX;
+    }
+
+    // -------------------------------------------------------------------------------------
+    public static int getTabsMemoryMax() {
+        return INT_TABS_MEMORY_MAX;
+    }
+
+    // -------------------------------------------------------------------------------------
+    public static int getMemoryLowPercent() {
+        return INT_MEMORY_LOW_PERCENT;
+    }
+
     // -------------------------------------------------------------------------------------
     public static double changeFontSize(String strFontSize) {
 
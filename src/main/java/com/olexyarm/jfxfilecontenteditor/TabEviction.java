@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2024, 2025, 2026 Oleksandr Yarmolenko. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details.
+ *
+ */
+package com.olexyarm.jfxfilecontenteditor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class TabEviction {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TabEviction.class);
+
+    // Editors in order of use, the least recently selected first. Used on FX thread only.
+    // When loaded content of all Tabs is over memory budget, content of not modified and not selected Tabs
+    // is released from the least recently used one, Tab keeps path, caret and line index and loads File when selected.
+    private final Map<FileContentEditor, Boolean> mapEditorsUsed = new LinkedHashMap<>(16, 0.75f, true);
+    private final long lngBudgetBytes;
+    private long lngEvictedCount;
+
+    // -------------------------------------------------------------------------------------
+    // Construstors
+    // -------------------------------------------------------------------------------------
+    TabEviction(int intBudgetMb) {
+
+        this.lngBudgetBytes = (long) intBudgetMb * 1024 * 1024;
+        LOGGER.info("Created Tab eviction."
+                + " BudgetMb=" + intBudgetMb);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Methods
+    // -------------------------------------------------------------------------------------
+    void used(FileContentEditor fileEditor) {
+        this.mapEditorsUsed.put(fileEditor, Boolean.TRUE);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Tab loaded in background is added as used, it could be never selected.
+    void loaded(FileContentEditor fileEditor) {
+
+        if (!this.mapEditorsUsed.containsKey(fileEditor)) {
+            this.mapEditorsUsed.put(fileEditor, Boolean.TRUE);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------
+    void remove(FileContentEditor fileEditor) {
+        this.mapEditorsUsed.remove(fileEditor);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Returns number of bytes released (estimated).
+    long evict(FileContentEditor fileEditorSelected) {
+        return this.evict(fileEditorSelected, this.lngBudgetBytes);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // When memory is low content of all Tabs which could be loaded again is released, except selected one.
+    long evictAll(FileContentEditor fileEditorSelected) {
+        return this.evict(fileEditorSelected, 0);
+    }
+
+    // -------------------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------------------
+    private long evict(FileContentEditor fileEditorSelected, long lngBudget) {
+
+        long lngTotal = 0;
+        for (FileContentEditor fileEditor : this.mapEditorsUsed.keySet()) {
+            lngTotal += fileEditor.getMemoryEstimate();
+        }
+        if (lngTotal <= lngBudget) {
+            return 0;
+        }
+        long lngReleased = 0;
+        // Keys are copied, map order is not changed while releasing.
+        List<FileContentEditor> lstEditors = new ArrayList<>(this.mapEditorsUsed.keySet());
+        for (FileContentEditor fileEditor : lstEditors) {
+            if (lngTotal - lngReleased <= lngBudget) {
+                break;
+            }
+            if (fileEditor == fileEditorSelected) {
+                continue;
+            }
+            long lngEstimate = fileEditor.getMemoryEstimate();
+            if (lngEstimate > 0 && fileEditor.releaseContent()) {
+                lngReleased += lngEstimate;
+                this.lngEvictedCount++;
+            }
+        }
+        LOGGER.info("Evicted content of Tabs."
+                + " Total=" + lngTotal
+                + " Budget=" + lngBudget
+                + " Released=" + lngReleased
+                + " EvictedCount=" + this.lngEvictedCount);
+        return lngReleased;
+    }
+}
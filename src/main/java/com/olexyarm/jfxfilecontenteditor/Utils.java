@@ -38,6 +38,7 @@ import javafx.scene.control.ButtonBar;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.DialogPane;
 import javafx.scene.control.Tab;
+import jfx.incubator.scene.control.richtext.TextPos;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,6 +53,8 @@ class Utils {
         tfBottomLineEnding, tfBottomCharset
     };
 
+    public static final String STR_OPEN_TABS_SEPARATOR = "\t";
+
     // ---------------------------------------------------------------------------
     // Methods
     // ---------------------------------------------------------------------------
@@ -126,6 +129,21 @@ class Utils {
         return false;
     }
 
+    // -------------------------------------------------------------------------------------
+    // User confirmed exit without saving, not saved edits are discarded and not replayed on next start.
+    public static void discardJournals(ObservableList<Tab> lstTabs) {
+
+        if (lstTabs == null) {
+            return;
+        }
+        for (Tab tab : lstTabs) {
+            FileContentEditor fileEditor = (FileContentEditor) tab.getContent();
+            if (fileEditor.isFileModified()) {
+                fileEditor.closeJournal();
+            }
+        }
+    }
+
     // -------------------------------------------------------------------------------------
     public static boolean openTabsPreserve(ObservableList<Tab> lstTabs) {
 
@@ -146,12 +164,16 @@ class Utils {
                     booFileModifiedAny = true;
                 }
                 String strFilePath = fileEditor.getFilePath();
+                // Line is "path<TAB>paragraph<TAB>offset" of caret.
+                TextPos textPos = fileEditor.getCaretPosition();
                 writer.write(strFilePath);
+                writer.write(STR_OPEN_TABS_SEPARATOR + textPos.index() + STR_OPEN_TABS_SEPARATOR + textPos.offset());
                 writer.write("\n");
                 LOGGER.debug("Saved Opened Tab to file."
                         + " path=\"" + path + "\""
                         + " strID=\"" + strID + "\""
-                        + " strFilePath=\"" + strFilePath + "\"");
+                        + " strFilePath=\"" + strFilePath + "\""
+                        + " textPos=\"" + textPos + "\"");
 
             }
         } catch (IOException ex) {
@@ -20,6 +20,7 @@ module com.olexyarm.jfxfilecontenteditor {
     requires org.slf4j;
     requires ch.qos.logback.classic;
     requires java.desktop;
+    requires java.management;
 
     opens com.olexyarm.jfxfilecontenteditor to javafx.fxml;
 